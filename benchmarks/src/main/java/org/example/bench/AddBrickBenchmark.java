@@ -0,0 +1,77 @@
+package org.example.bench;
+
+import org.example.model.Belt;
+import org.example.model.TruckDispatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opoznienie Belt.addBrick przy 1, 3, 16 i 256 rownoczesnych producentach, dla obu tasm.
+ * Producentami sa watki JMH, a cegly odbiera prawdziwy TruckDispatcher bez pauz,
+ * wiec wynik obejmuje tez czekanie na przekazanie pelnej tasmy ciezarowce.
+ * Przepustowosc w cegłach/s mierzy HandoffBenchmark po stronie ciezarowki -
+ * tryb Throughput JMH zawyza wynik, gdy pojedyncze wywolanie blokuje sie dluzej niz iteracja.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddBrickBenchmark {
+    @Param({"LOCK", "CAS"})
+    public String beltType;
+
+    Belt belt;
+    TruckDispatcher dispatcher;
+
+    @State(Scope.Thread)
+    public static class Producer {
+        private static final AtomicInteger NEXT = new AtomicInteger();
+        int mass;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            mass = BenchSupport.massOf(NEXT.getAndIncrement());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchSupport.silenceStdout();
+        belt = BenchSupport.newBelt(beltType);
+        dispatcher = BenchSupport.newDispatcher(belt);
+        dispatcher.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dispatcher.stopDispatcher();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void producers1(Producer p) throws InterruptedException {
+        belt.addBrick(p.mass);
+    }
+
+    @Benchmark
+    @Threads(3)
+    public void producers3(Producer p) throws InterruptedException {
+        belt.addBrick(p.mass);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void producers16(Producer p) throws InterruptedException {
+        belt.addBrick(p.mass);
+    }
+
+    @Benchmark
+    @Threads(256)
+    public void producers256(Producer p) throws InterruptedException {
+        belt.addBrick(p.mass);
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.bench;
+
+import org.example.model.AdmissionPolicy;
+import org.example.model.Belt;
+import org.example.model.TruckDispatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lekkie (masa 1) i ciezkie (masa 3) cegly przy tasmie stale blisko limitu masy,
+ * dla kazdej polityki przyjec. Grupa JMH to pracownicy o tym samym skonfigurowanym
+ * tempie, a cegly odbiera TruckDispatcher bez pauz. Liczba probek light/heavy to
+ * przepustowosc kazdej klasy (w sumie cegly i masa na tasmie), a percentyle - ogon czekania.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdmissionBenchmark {
+    //tempo pracownikow dla WEIGHTED_FAIR i DEADLINE - takie samo dla obu klas
+    private static final int INTERVAL_MILLIS = 1;
+
+    @Param({"BARGING", "FIFO", "WEIGHTED_FAIR", "DEADLINE"})
+    public String policy;
+
+    Belt belt;
+    TruckDispatcher dispatcher;
+
+    @State(Scope.Thread)
+    public static class Producer {
+        String name;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            name = Thread.currentThread().getName();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchSupport.silenceStdout();
+        belt = BenchSupport.newBelt("LOCK");
+        belt.setAdmissionPolicy(AdmissionPolicy.valueOf(policy));
+        dispatcher = BenchSupport.newDispatcher(belt);
+        dispatcher.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dispatcher.stopDispatcher();
+    }
+
+    @Benchmark
+    @Group("line")
+    @GroupThreads(4)
+    public void light(Producer p) throws InterruptedException {
+        belt.addBrick(1, p.name, INTERVAL_MILLIS);
+    }
+
+    @Benchmark
+    @Group("line")
+    @GroupThreads(4)
+    public void heavy(Producer p) throws InterruptedException {
+        belt.addBrick(3, p.name, INTERVAL_MILLIS);
+    }
+}
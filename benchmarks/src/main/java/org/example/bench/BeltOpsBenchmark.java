@@ -0,0 +1,74 @@
+package org.example.bench;
+
+import org.example.model.Belt;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jednowatkowe operacje tasmy bez rywalizacji: kopia zawartosci
+ * oraz zdjecie pelnej tasmy (wariant do bufora i wariant z lista).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeltOpsBenchmark {
+    @Param({"LOCK", "CAS"})
+    public String beltType;
+
+    private Belt halfBelt;
+    private Belt cycleBelt;
+    private int[] buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        BenchSupport.silenceStdout();
+        cycleBelt = BenchSupport.newBelt(beltType);
+        buffer = new int[BenchSupport.COUNT_MAX];
+
+        //tasma zapelniona w polowie do pomiaru kopii
+        halfBelt = BenchSupport.newBelt(beltType);
+        for (int i = 0; i < BenchSupport.COUNT_MAX / 2; i++) {
+            halfBelt.addBrick(BenchSupport.massOf(i));
+        }
+    }
+
+    @Benchmark
+    public int snapshotIntoBuffer() {
+        return halfBelt.getBricksSnapshot(buffer);
+    }
+
+    @Benchmark
+    public List<Integer> snapshotList() {
+        return halfBelt.getBricksSnapshot();
+    }
+
+    //zapelnij tasme (countMax cegiel o masie 1), zdejmij wszystko i zresetuj limity
+    @Benchmark
+    @OperationsPerInvocation(BenchSupport.COUNT_MAX)
+    public int takeBricksIntoBuffer() throws InterruptedException {
+        fill();
+        int n = cycleBelt.takeBricksForTruck(BenchSupport.TRUCK_CAPACITY, buffer);
+        cycleBelt.reset();
+        return n;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchSupport.COUNT_MAX)
+    public List<Integer> takeBricksList() throws InterruptedException {
+        fill();
+        List<Integer> bricks = cycleBelt.takeBricksForTruck(BenchSupport.TRUCK_CAPACITY);
+        cycleBelt.reset();
+        return bricks;
+    }
+
+    private void fill() throws InterruptedException {
+        for (int i = 0; i < BenchSupport.COUNT_MAX; i++) {
+            cycleBelt.addBrick(1);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.bench;
+
+import org.example.model.AdmissionPolicy;
+import org.example.model.Belt;
+import org.example.model.EventLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Test obciazeniowy tasmy w stylu jcstress: setki producentow (na zmiane addBrick
+ * i tryAddBrick) i kilku konkurujacych odbiorcow (takeBricksForTruck, dockTruck
+ * z losowa ladownoscia, waitForFullBelt) bez zadnych przerw, a osobny watek bez
+ * przerwy wywoluje Belt.checkInvariants. Na koniec bilans: kazda dodana
+ * cegla zostala zdjeta albo lezy na tasmie (liczba i masa).
+ * <p>
+ * java -cp benchmarks/target/benchmarks.jar org.example.bench.BeltStress [producenci] [odbiorcy] [sekundy] [LOCK|CAS] [polityka przyjec]
+ */
+public final class BeltStress {
+    private static final int MAX_MASS = 7;
+
+    private final Belt belt;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean running = true;
+
+    private final LongAdder addedBricks = new LongAdder();
+    private final LongAdder addedMass = new LongAdder();
+    private final LongAdder takenBricks = new LongAdder();
+    private final LongAdder takenMass = new LongAdder();
+    private final LongAdder checks = new LongAdder();
+
+    private BeltStress(Belt belt) {
+        this.belt = belt;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int consumers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        String type = args.length > 3 ? args[3].toUpperCase() : "LOCK";
+        AdmissionPolicy policy = args.length > 4 ? AdmissionPolicy.valueOf(args[4].toUpperCase()) : AdmissionPolicy.BARGING;
+
+        Belt belt = BenchSupport.newBelt(type);
+        belt.setAdmissionPolicy(policy);
+        belt.setEventLog(EventLog.disabled());
+        BeltStress stress = new BeltStress(belt);
+        boolean ok = stress.run(producers, consumers, seconds);
+        System.exit(ok ? 0 : 1);
+    }
+
+    private boolean run(int producers, int consumers, int seconds) throws InterruptedException {
+        List<Thread> producerThreads = new ArrayList<>(producers);
+        for (int i = 0; i < producers; i++) {
+            int mass = i % MAX_MASS + 1;
+            boolean blocking = i % 2 == 0;
+            String name = "producer-" + i;
+            int interval = i % 4; //rozne tempo dla polityk WEIGHTED_FAIR i DEADLINE
+            producerThreads.add(start(name, () -> produce(name, mass, interval, blocking)));
+        }
+        List<Thread> consumerThreads = new ArrayList<>(consumers);
+        for (int i = 0; i < consumers; i++) {
+            long seed = i;
+            boolean waitsForFull = i == 0; //jeden odbiorca jak dyspozytor, reszta zdejmuje od razu
+            consumerThreads.add(start("consumer-" + i, () -> consume(new SplittableRandom(seed), waitsForFull)));
+        }
+        Thread checker = start("checker", this::check);
+
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        while (System.nanoTime() < deadline && failure.get() == null) {
+            Thread.sleep(100);
+        }
+        running = false;
+        //producenci przed odbiorcami: czekajacy w addBrick koncza sie przerwaniem
+        stop(producerThreads);
+        stop(consumerThreads);
+        stop(List.of(checker));
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        if (failure.get() == null) {
+            try {
+                belt.checkInvariants();
+                checkBalance();
+            } catch (IllegalStateException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+        System.out.printf("%s %s: %d producentow, %d odbiorcow, %.1f s: dodano %d cegiel (%.0f/s), zdjeto %d, %d sprawdzen (%.0f/s)%n",
+                belt.getClass().getSimpleName(), belt.getAdmissionPolicy(), producers, consumers, elapsed, addedBricks.sum(), addedBricks.sum() / elapsed, takenBricks.sum(),
+                checks.sum(), checks.sum() / elapsed);
+        Throwable error = failure.get();
+        if (error != null) {
+            System.out.println("BLAD: " + error);
+            return false;
+        }
+        System.out.println("OK: niezmienniki zachowane, zadna cegla nie zginela");
+        return true;
+    }
+
+    private void produce(String name, int mass, int interval, boolean blocking) {
+        long bricks = 0;
+        try {
+            while (running) {
+                if (blocking) {
+                    belt.addBrick(mass, name, interval);
+                    bricks++;
+                } else if (belt.tryAddBrick(mass)) {
+                    bricks++;
+                } else {
+                    Thread.yield();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            addedBricks.add(bricks);
+            addedMass.add(bricks * mass);
+        }
+    }
+
+    private void consume(SplittableRandom random, boolean waitsForFull) {
+        int[] buffer = new int[belt.getCountMax()];
+        long bricks = 0;
+        long mass = 0;
+        try {
+            while (running) {
+                if (random.nextInt(8) == 0) {
+                    belt.dockTruck(random.nextInt(MAX_MASS, 3 * BenchSupport.TRUCK_CAPACITY));
+                }
+                if (waitsForFull) {
+                    belt.waitForFullBelt();
+                }
+                int n = belt.takeBricksForTruck(random.nextInt(1, 2 * BenchSupport.TRUCK_CAPACITY), buffer);
+                for (int i = 0; i < n; i++) {
+                    mass += buffer[i];
+                }
+                bricks += n;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            takenBricks.add(bricks);
+            takenMass.add(mass);
+        }
+    }
+
+    private void check() {
+        try {
+            while (running) {
+                belt.checkInvariants();
+                checks.increment();
+            }
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    //po zatrzymaniu wszystkich watkow: dodane == zdjete + lezace na tasmie
+    private void checkBalance() {
+        long onBeltBricks = 0;
+        long onBeltMass = 0;
+        for (int mass : belt.getBricksSnapshot()) {
+            onBeltBricks++;
+            onBeltMass += mass;
+        }
+        if (addedBricks.sum() != takenBricks.sum() + onBeltBricks || addedMass.sum() != takenMass.sum() + onBeltMass) {
+            throw new IllegalStateException("Bilans cegiel: dodano " + addedBricks.sum() + " (masa " + addedMass.sum()
+                    + "), zdjeto " + takenBricks.sum() + " (masa " + takenMass.sum() + "), na tasmie " + onBeltBricks
+                    + " (masa " + onBeltMass + ")");
+        }
+    }
+
+    private static Thread start(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private void stop(List<Thread> threads) throws InterruptedException {
+        for (Thread t : threads) t.interrupt();
+        for (Thread t : threads) {
+            t.join(5000);
+            if (t.isAlive()) {
+                failure.compareAndSet(null, new IllegalStateException("Watek " + t.getName() + " nie zakonczyl sie"));
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.bench;
+
+import org.example.model.Belt;
+import org.example.model.BeltType;
+import org.example.model.EventLog;
+import org.example.model.Truck;
+import org.example.model.TruckDispatcher;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wspolna konfiguracja benchmarkow: parametry linii z config.yaml,
+ * dyspozytor bez pauz i wyciszenie logow modelu na stdout.
+ */
+final class BenchSupport {
+    static final int COUNT_MAX = 19;
+    static final int WEIGHT_MAX = 42;
+    static final int TRUCK_CAPACITY = 90;
+
+    private BenchSupport() {}
+
+    //logi modelu sa czescia mierzonego kosztu, ale nie moga zalewac wyjscia JMH
+    static void silenceStdout() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        EventLog.shared().setLevel(EventLog.Level.OFF);
+    }
+
+    //type: LOCK albo CAS (BeltType) - benchmarki tasmy maja go jako @Param
+    static Belt newBelt(String type) {
+        Belt belt = BeltType.valueOf(type).create(COUNT_MAX, WEIGHT_MAX);
+        belt.setTruckArrivalMillis(0);
+        return belt;
+    }
+
+    static Truck newTruck() {
+        return new Truck("T1", TRUCK_CAPACITY);
+    }
+
+    static TruckDispatcher newDispatcher(Belt belt) {
+        TruckDispatcher dispatcher = new TruckDispatcher(belt, 1, TRUCK_CAPACITY);
+        dispatcher.setUnloadPauseMillis(0);
+        return dispatcher;
+    }
+
+    //masy jak P1, P2, P3 powtarzane dla kolejnych producentow
+    static int massOf(int producer) {
+        return producer % 3 + 1;
+    }
+
+    //producenci dodajacy cegly bez przerwy, az do przerwania
+    static List<Thread> startProducers(Belt belt, int producers) {
+        List<Thread> threads = new ArrayList<>(producers);
+        for (int i = 0; i < producers; i++) {
+            int mass = massOf(i);
+            Thread t = new Thread(() -> {
+                try {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        belt.addBrick(mass);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "producer-" + i);
+            t.setDaemon(true);
+            t.start();
+            threads.add(t);
+        }
+        return threads;
+    }
+
+    static void stop(List<Thread> threads) throws InterruptedException {
+        for (Thread t : threads) t.interrupt();
+        for (Thread t : threads) t.join(1000);
+    }
+}
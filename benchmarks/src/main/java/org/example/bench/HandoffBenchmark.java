@@ -0,0 +1,76 @@
+package org.example.bench;
+
+import org.example.model.Belt;
+import org.example.model.Truck;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cykl ciezarowki: waitForFullBelt -> takeBricksForTruck -> Truck.load
+ * (i unload z ponownym podstawieniem gdy pelna). Watek JMH gra role ciezarowki, a tasme zapelniaja
+ * producenci w tle. Jedna operacja to jedno przekazanie pelnej tasmy,
+ * a licznik bricks podaje przepustowosc w cegłach/s.
+ * Producenci to zwykle watki, wiec ich liczba moze byc parametrem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HandoffBenchmark {
+
+    @Param({"1", "3", "16", "256"})
+    public int producers;
+
+    @Param({"LOCK", "CAS"})
+    public String beltType;
+
+    private Belt belt;
+    private Truck truck;
+    private int[] buffer;
+    private List<Thread> producerThreads;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Moved {
+        public long bricks;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            bricks = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchSupport.silenceStdout();
+        belt = BenchSupport.newBelt(beltType);
+        //cykl ciezarowki wykonuje watek JMH
+        truck = BenchSupport.newTruck();
+        belt.dockTruck(truck.getSize());
+        buffer = new int[belt.getCountMax()];
+        producerThreads = BenchSupport.startProducers(belt, producers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        BenchSupport.stop(producerThreads);
+        truck.stopTruck();
+    }
+
+    @Benchmark
+    public int handoff(Moved moved) throws InterruptedException {
+        belt.waitForFullBelt();
+        int n = belt.takeBricksForTruck(truck.remaining(), buffer);
+        truck.load(buffer, n);
+        if (truck.isFull()) {
+            truck.unload();
+            belt.dockTruck(truck.getSize());
+        }
+        moved.bricks += n;
+        return n;
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.bench;
+
+import org.example.journal.Journal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Zapis zdarzenia brickAdded do dziennika mapowanego w pamieci przy 1, 4 i 16 watkach.
+ * Dziennik zyje przez jedna iteracje w katalogu tymczasowym, ktory potem jest usuwany.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmark {
+    private Path dir;
+    private Journal journal;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("journal-bench");
+        journal = new Journal(dir);
+        journal.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void brickAdded1() {
+        journal.brickAdded("P1", 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void brickAdded4() {
+        journal.brickAdded("P1", 1);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void brickAdded16() {
+        journal.brickAdded("P1", 1);
+    }
+}
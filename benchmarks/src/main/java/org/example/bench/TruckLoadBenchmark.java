@@ -0,0 +1,53 @@
+package org.example.bench;
+
+import org.example.model.Truck;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Truck.load cegla po cegle i cala partia, z rozladunkiem gdy ciezarowka jest pelna.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TruckLoadBenchmark {
+    private Truck truck;
+    //partia jak z pelnej tasmy: COUNT_MAX cegiel o masie 1..3
+    private final int[] batch = new int[BenchSupport.COUNT_MAX];
+    private int batchMass;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchSupport.silenceStdout();
+        truck = BenchSupport.newTruck();
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = BenchSupport.massOf(i);
+            batchMass += batch[i];
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        truck.stopTruck();
+    }
+
+    @Benchmark
+    public void load() {
+        truck.load(1);
+        if (truck.isFull()) {
+            truck.unload();
+        }
+    }
+
+    @Benchmark
+    public void loadBatch() {
+        if (truck.remaining() < batchMass) {
+            truck.unload();
+        }
+        truck.load(batch, batch.length);
+    }
+}
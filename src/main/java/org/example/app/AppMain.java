@@ -2,27 +2,551 @@ package org.example.app;
 
 import org.example.config.AppConfig;
 import org.example.config.ConfigLoader;
+import org.example.config.ConfigWatcher;
+import org.example.flow.FlowLine;
 import org.example.gui.MainWindow;
-import org.example.model.ConveyorBelt;
-import org.example.model.Truck;
-import org.example.model.Worker;
+import org.example.journal.Journal;
+import org.example.journal.JournalReader;
+import org.example.journal.JournalRecord;
+import org.example.model.AdmissionPolicy;
+import org.example.model.BeltType;
+import org.example.model.EventLog;
+import org.example.model.LineCheckpoint;
+import org.example.model.LineMetrics;
+import org.example.model.LineScheduler;
+import org.example.model.LoadingStrategy;
+import org.example.model.ProductionLine;
+import org.example.model.TruckDispatcher;
+import org.example.sim.EventSimulation;
+import org.example.sim.Interleaving;
+import org.example.sim.MonteCarlo;
+import org.example.sim.ParameterSweep;
+import org.example.sim.SimulationResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 public class AppMain {
-    public static Worker worker1;
-    public static Worker worker2;
-    public static Worker worker3;
-    public static Truck truck;
-    public static final ConveyorBelt belt = new ConveyorBelt(15, 29);
+    //linia wyswietlana w GUI
+    public static ProductionLine line;
+
+    //plik z --config= i czy obserwowac go (--watch) - zmiany trafiaja do dzialajacych linii
+    private static String configPath;
+    private static boolean watchConfig;
+    private static ConfigWatcher configWatcher;
+
+    public static AppConfig loadConfig() {
+        return configPath != null ? ConfigLoader.loadConfig(configPath) : ConfigLoader.loadConfig();
+    }
+
     public static void initializeActors(AppConfig config) {
-        worker1 = new Worker("P1", config.getWorker1().getBrickMass(), config.getWorker1().getInterval());
-        worker2 = new Worker("P2", config.getWorker2().getBrickMass(), config.getWorker2().getInterval());
-        worker3 = new Worker("P3", config.getWorker3().getBrickMass(), config.getWorker3().getInterval());
-        truck = new Truck(config.getTruckCapacity(), belt);
+        line = new ProductionLine("L1", config);
+        configWatcher = watch(List.of(line));
+    }
+
+    public static void startActors() {
+        if (line != null) line.start();
+    }
+
+    public static void stopActors() {
+        if (configWatcher != null) configWatcher.close();
+        if (line != null) line.stop();
+    }
+
+    //obserwator pliku konfiguracji albo null, gdy przeladowanie nie jest wlaczone
+    private static ConfigWatcher watch(List<ProductionLine> lines) {
+        if (!watchConfig || configPath == null) return null;
+        return new ConfigWatcher(Path.of(configPath), config -> {
+            for (ProductionLine l : lines) l.applyConfig(config);
+        });
     }
 
     public static void main(String[] args) {
-        AppConfig config = ConfigLoader.loadConfig();
+        configPath = option(args, "--config=");
+        watchConfig = hasFlag(args, "--watch");
+        AppConfig config = loadConfig();
+        configureLog(args);
+        if (hasFlag(args, "--no-reserve")) {
+            config.setReserveTruckCapacity(false);
+        }
+        String beltType = option(args, "--belt=");
+        if (beltType != null) {
+            config.setBeltType(BeltType.valueOf(beltType.trim().toUpperCase()).name());
+        }
+        String admission = option(args, "--admission=");
+        if (admission != null) {
+            config.setAdmissionPolicy(AdmissionPolicy.valueOf(admission.trim().toUpperCase()).name());
+        }
+        String replay = option(args, "--replay=");
+        if (replay != null) {
+            runReplay(Path.of(replay));
+            return;
+        }
+        String recordSchedule = option(args, "--record-schedule=");
+        String replaySchedule = option(args, "--replay-schedule=");
+        if (hasFlag(args, "--simulate") && (recordSchedule != null || replaySchedule != null || option(args, "--seed=") != null)) {
+            config.setLoadingStrategy(strategies(args, config)[0]);
+            String seed = option(args, "--seed=");
+            runDeterministic(config, durationSeconds(args), truckCounts(args, config)[0],
+                    seed != null ? Long.parseLong(seed) : 0, recordSchedule, replaySchedule);
+            return;
+        }
+        if (hasFlag(args, "--simulate")) {
+            runSimulation(config, durationSeconds(args), truckCounts(args, config), strategies(args, config));
+            return;
+        }
+        String replications = option(args, "--monte-carlo=");
+        if (replications != null) {
+            config.setLoadingStrategy(strategies(args, config)[0]);
+            config.setTruckCount(truckCounts(args, config)[0]);
+            String seed = option(args, "--seed=");
+            runMonteCarlo(config, durationSeconds(args), Integer.parseInt(replications),
+                    seed != null ? Long.parseLong(seed) : System.nanoTime(), parallelism(args));
+            return;
+        }
+        if (hasFlag(args, "--sweep")) {
+            config.setLoadingStrategy(strategies(args, config)[0]);
+            config.setTruckCount(truckCounts(args, config)[0]);
+            runSweep(config, durationSeconds(args), sweepAxes(args), parallelism(args));
+            return;
+        }
+        if (hasFlag(args, "--flow")) {
+            config.setLoadingStrategy(strategies(args, config)[0]);
+            runFlow(config, durationSeconds(args), truckCounts(args, config)[0], lineCount(args));
+            return;
+        }
+        if (hasFlag(args, "--headless")) {
+            config.setLoadingStrategy(strategies(args, config)[0]);
+            runHeadless(config, durationSeconds(args), truckCounts(args, config),
+                    lineCount(args), hasFlag(args, "--metrics"), option(args, "--journal="),
+                    option(args, "--checkpoint="), checkpointSeconds(args));
+            return;
+        }
         MainWindow.launch(MainWindow.class, args); // Tylko to!
 
     }
+
+    //tryb bez GUI - model dziala bez toolkitu JavaFX, np. na serwerze;
+    //dla kilku wielkosci floty (--trucks=1,2,4) przebiegi ida po kolei i koncza sie porownaniem
+    private static void runHeadless(AppConfig config, long seconds, int[] truckCounts, int lines, boolean printMetrics,
+                                    String journal, String checkpoint, long checkpointSeconds) {
+        double[] massPerSecond = new double[truckCounts.length];
+        for (int r = 0; r < truckCounts.length; r++) {
+            //--journal=DIR zapisuje dziennik kazdej linii w DIR/L1, DIR/L2... (przy kilku flotach DIR/T2/L1...)
+            Path journalDir = journal == null ? null
+                    : truckCounts.length > 1 ? Path.of(journal, "T" + truckCounts[r]) : Path.of(journal);
+            //--checkpoint=PLIK wznawia linie z punktu kontrolnego i zapisuje go co --checkpoint-every s
+            Path checkpointFile = checkpoint == null ? null
+                    : truckCounts.length > 1 ? Path.of(checkpoint + ".T" + truckCounts[r]) : Path.of(checkpoint);
+            massPerSecond[r] = runHeadlessOnce(config, seconds, truckCounts[r], lines, printMetrics, journalDir,
+                    checkpointFile, checkpointSeconds);
+        }
+
+        if (truckCounts.length > 1) {
+            System.out.println("Ciezarowki | masa/s   | zysk");
+            for (int r = 0; r < truckCounts.length; r++) {
+                double gain = massPerSecond[0] > 0 ? massPerSecond[r] / massPerSecond[0] : 0;
+                System.out.printf("%10d | %8.2f | x%.2f%n", truckCounts[r], massPerSecond[r], gain);
+            }
+        }
+    }
+
+    //symulacja deterministyczna: przeplot krokow z ziarna (--seed=S), zapis (--record-schedule=PLIK)
+    //i dokladne odtworzenie zapisanego przebiegu (--replay-schedule=PLIK, ziarno i czas z pliku)
+    private static void runDeterministic(AppConfig config, long seconds, int trucks, long seed,
+                                         String recordFile, String replayFile) {
+        try {
+            Interleaving interleaving = replayFile != null ? Interleaving.replay(Path.of(replayFile))
+                    : Interleaving.seeded(seed, (seconds > 0 ? seconds : 24 * 3600) * 1000);
+            EventSimulation simulation = new EventSimulation(config, trucks, interleaving.workerRandom());
+            simulation.setInterleaving(interleaving);
+            long start = System.nanoTime();
+            SimulationResult result = simulation.run(interleaving.getDurationMillis());
+            System.out.println((interleaving.isReplay() ? "Odtworzono " + replayFile + ": " : "Ziarno " + interleaving.getSeed() + ": ")
+                    + result);
+            System.out.printf("  %d krokow, odcisk przeplotu %016x (obliczone w %.1f ms)%n",
+                    interleaving.size(), interleaving.fingerprint(), (System.nanoTime() - start) / 1e6);
+            if (recordFile != null) {
+                interleaving.writeTo(Path.of(recordFile));
+                System.out.println("  przeplot zapisany w " + recordFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //replikacje Monte Carlo z losowymi pracownikami (intervalJitter, massMix, breakProbability w konfiguracji);
+    //--seed=S powtarza wyniki, domyslnie godzina czasu wirtualnego na replikacje
+    private static void runMonteCarlo(AppConfig config, long seconds, int replications, long seed, int parallelism) {
+        MonteCarlo monteCarlo = new MonteCarlo(config, (seconds > 0 ? seconds : 3600) * 1000, seed);
+        System.out.println("Monte Carlo: " + replications + " replikacji na " + parallelism + " watkach, ziarno " + seed);
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            monteCarlo.run(replications, pool);
+        } finally {
+            pool.shutdown();
+        }
+        System.out.println("Miara            | srednia (95% CI)           | p5       | p50 (95% CI)               | p95");
+        printSummary("masa/s", monteCarlo.massPerSecond(), 1);
+        printSummary("wypelnienie [%]", monteCarlo.truckUtilization(), 100);
+        printSummary("tasma pelna [s]", monteCarlo.stallSeconds(), 1);
+        System.out.printf("(obliczone w %.1f s)%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    private static void printSummary(String name, MonteCarlo.Summary s, double scale) {
+        System.out.printf("%-16s | %8.2f [%8.2f, %8.2f] | %8.2f | %8.2f [%8.2f, %8.2f] | %8.2f%n", name,
+                s.mean() * scale, s.meanLow() * scale, s.meanHigh() * scale, s.p5() * scale,
+                s.p50() * scale, s.p50Low() * scale, s.p50High() * scale, s.p95() * scale);
+    }
+
+    //przeglad siatki parametrow (--vary=beltCountMax=10:30:5 --vary=P1.interval=50,100) na symulacji;
+    //domyslnie godzina czasu wirtualnego na kombinacje, wszystkie kombinacje rownolegle
+    private static void runSweep(AppConfig config, long seconds, List<ParameterSweep.Axis> axes, int parallelism) {
+        if (axes.isEmpty()) {
+            throw new IllegalArgumentException("Przeglad wymaga co najmniej jednej opcji --vary=parametr=zakres");
+        }
+        ParameterSweep sweep = new ParameterSweep(config, axes, (seconds > 0 ? seconds : 3600) * 1000);
+        System.out.println("Przeglad " + sweep.size() + " kombinacji na " + parallelism + " watkach");
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        List<ParameterSweep.Row> rows;
+        try {
+            rows = sweep.run(pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        StringBuilder header = new StringBuilder();
+        for (ParameterSweep.Axis axis : axes) {
+            header.append(String.format("%-14s | ", axis.parameter()));
+        }
+        System.out.println(header + "masa/s   | wypelnienie | tasma pelna [s]");
+        ParameterSweep.Row best = null;
+        for (ParameterSweep.Row row : rows) {
+            StringBuilder line = new StringBuilder();
+            for (int value : row.values()) {
+                line.append(String.format("%-14d | ", value));
+            }
+            SimulationResult result = row.result();
+            if (result == null) {
+                System.out.println(line + "pominieta: " + row.error());
+                continue;
+            }
+            System.out.println(line + String.format("%8.2f | %10.1f%% | %.1f",
+                    result.massPerSecond(), result.truckUtilization() * 100, result.getStallMillis() / 1000.0));
+            if (best == null || result.massPerSecond() > best.result().massPerSecond()) best = row;
+        }
+        if (best != null) {
+            StringBuilder line = new StringBuilder("Najlepsza:");
+            for (int i = 0; i < axes.size(); i++) {
+                line.append(' ').append(axes.get(i).parameter()).append('=').append(best.values()[i]);
+            }
+            System.out.printf("%s (%.2f masy/s)%n", line, best.result().massPerSecond());
+        }
+        System.out.printf("(obliczone w %.1f s)%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    //linie jako potok Flow (pracownicy -> tasma -> ciezarowki) na wspolnym planiscie i puli ForkJoin
+    private static void runFlow(AppConfig config, long seconds, int truckCount, int lineCount) {
+        List<FlowLine> lines = new ArrayList<>(lineCount);
+        for (int i = 1; i <= lineCount; i++) {
+            lines.add(new FlowLine("L" + i, config, truckCount, ForkJoinPool.commonPool(), LineScheduler.shared()));
+        }
+        long start = System.nanoTime();
+        for (FlowLine line : lines) {
+            line.start();
+        }
+        System.out.println("Potok Flow uruchomiony (" + lineCount + " linii, " + truckCount + " ciezarowek na linie)"
+                + (seconds > 0 ? " na " + seconds + " s" : ""));
+        try {
+            Thread.sleep((seconds > 0 ? seconds : 60) * 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (FlowLine line : lines) {
+                line.stop();
+            }
+        }
+
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        EventLog.shared().flush();
+        long bricks = 0;
+        long trips = 0;
+        long delivered = 0;
+        long stallNanos = 0;
+        for (FlowLine line : lines) {
+            bricks += line.getBelt().getBricksAdded();
+            trips += line.getTrips();
+            delivered += line.getDeliveredMass();
+            stallNanos += line.getBelt().getStallNanos();
+        }
+        System.out.printf("Podsumowanie: %d cegiel na tasmach, %d kursow, dostarczono masa %d (%.2f/s), "
+                        + "tasmy pelne srednio przez %.1f s%n",
+                bricks, trips, delivered, delivered / elapsed, stallNanos / 1e9 / lineCount);
+    }
+
+    //symulacja dyskretna na zegarze wirtualnym - domyslnie jedna doba produkcji
+    //kilka strategii ladowania (--strategy=FIFO,SUBSET_SUM) konczy sie porownaniem wypelnienia ciezarowek
+    private static void runSimulation(AppConfig config, long seconds, int[] truckCounts, String[] strategies) {
+        long millis = (seconds > 0 ? seconds : 24 * 3600) * 1000;
+        List<String> rows = new ArrayList<>();
+        for (String strategy : strategies) {
+            config.setLoadingStrategy(strategy);
+            for (int trucks : truckCounts) {
+                long start = System.nanoTime();
+                SimulationResult result = new EventSimulation(config, trucks).run(millis);
+                System.out.println(strategy + ", " + trucks + " ciezarowek: " + result);
+                System.out.printf("  (obliczone w %.1f ms)%n", (System.nanoTime() - start) / 1e6);
+                rows.add(String.format("%-19s | %10d | %12.1f%% | %13.2f | %.2f",
+                        strategy, trucks, result.truckUtilization() * 100, result.tripsPerTonne(), result.massPerSecond()));
+            }
+        }
+        if (strategies.length > 1) {
+            System.out.println("Strategia           | Ciezarowki | wypelnienie  | kursy na tone | masa/s");
+            rows.forEach(System.out::println);
+        }
+    }
+
+    //uruchamia rownolegle kilka niezaleznych linii (--lines=N) i sumuje ich przepustowosc
+    private static double runHeadlessOnce(AppConfig config, long seconds, int truckCount, int lineCount, boolean printMetrics,
+                                          Path journalDir, Path checkpointFile, long checkpointSeconds) {
+        List<ProductionLine> lines = new ArrayList<>(lineCount);
+        List<Journal> journals = new ArrayList<>();
+        for (int i = 1; i <= lineCount; i++) {
+            ProductionLine line = new ProductionLine("L" + i, config, truckCount);
+            if (journalDir != null) {
+                Journal journal = new Journal(journalDir.resolve(line.getName()));
+                journal.start();
+                line.addListener(journal);
+                journals.add(journal);
+            }
+            lines.add(line);
+        }
+        if (checkpointFile != null) {
+            restoreCheckpoints(lines, checkpointFile);
+        }
+        ConfigWatcher watcher = watch(lines);
+
+        long start = System.nanoTime();
+        for (ProductionLine line : lines) {
+            line.start();
+        }
+        ScheduledFuture<?> checkpointer = checkpointFile == null ? null : LineScheduler.io().scheduleWithFixedDelay(
+                () -> writeCheckpoints(lines, checkpointFile), checkpointSeconds, checkpointSeconds, TimeUnit.SECONDS);
+        System.out.println("Tryb headless uruchomiony (" + lineCount + " linii, " + config.getWorkers().size()
+                + " grup pracownikow, " + truckCount + " ciezarowek na linie)" + (seconds > 0 ? " na " + seconds + " s" : ""));
+
+        try {
+            if (seconds > 0) {
+                Thread.sleep(seconds * 1000);
+            } else {
+                lines.get(0).getDispatcher().join(); //dziala az do przerwania procesu
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (watcher != null) {
+                watcher.close();
+            }
+            for (ProductionLine line : lines) {
+                line.stop();
+            }
+            if (checkpointer != null) {
+                checkpointer.cancel(false);
+                writeCheckpoints(lines, checkpointFile);
+            }
+            for (Journal journal : journals) {
+                journal.close();
+                System.out.println("Dziennik " + journal.getDir() + ": " + journal.getRecords() + " rekordow");
+            }
+        }
+
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        EventLog.shared().flush(); //podsumowanie po wpisach z dziennika
+        long trips = 0;
+        long delivered = 0;
+        long stallNanos = 0;
+        long bricks = 0;
+        long mass = 0;
+        for (ProductionLine line : lines) {
+            TruckDispatcher dispatcher = line.getDispatcher();
+            LineMetrics metrics = line.getMetrics();
+            trips += dispatcher.getTrips();
+            delivered += dispatcher.getDeliveredMass();
+            stallNanos += line.getBelt().getStallNanos();
+            bricks += metrics.getBricks();
+            mass += metrics.getMass();
+            if (printMetrics) {
+                System.out.println(line.getName() + " metryki: " + metrics);
+            }
+        }
+        double massPerSecond = delivered / elapsed;
+        System.out.printf("Podsumowanie: %d cegiel na tasmach (masa %d), %d kursow, dostarczono masa %d (%.2f/s), "
+                        + "tasmy pelne srednio przez %.1f s%n",
+                bricks, mass, trips, delivered, massPerSecond, stallNanos / 1e9 / lineCount);
+        return massPerSecond;
+    }
+
+    //--log-level=DEBUG|INFO|WARN|ERROR|OFF, --log-sample=N zapisuje srednio co N-ta cegle
+    private static void configureLog(String[] args) {
+        EventLog log = EventLog.shared();
+        String level = option(args, "--log-level=");
+        if (level != null) {
+            log.setLevel(EventLog.Level.valueOf(level.trim().toUpperCase()));
+        }
+        String sample = option(args, "--log-sample=");
+        if (sample != null) {
+            log.setSampling(EventLog.Event.BRICK_ADDED, Integer.parseInt(sample.trim()));
+        }
+    }
+
+    //przy kilku liniach kazda ma wlasny plik PLIK.L1, PLIK.L2...
+    private static Path checkpointFile(Path base, ProductionLine line, int lineCount) {
+        return lineCount == 1 ? base : base.resolveSibling(base.getFileName() + "." + line.getName());
+    }
+
+    private static void restoreCheckpoints(List<ProductionLine> lines, Path base) {
+        for (ProductionLine line : lines) {
+            Path file = checkpointFile(base, line, lines.size());
+            if (!Files.exists(file)) continue;
+            try {
+                long start = System.nanoTime();
+                LineCheckpoint checkpoint = LineCheckpoint.readFrom(file);
+                line.restore(checkpoint);
+                System.out.printf("%s wznowiona z %s: %d cegiel na tasmie, %d masy w ciezarowkach (%.2f ms)%n",
+                        line.getName(), file, checkpoint.bricksOnBelt(), checkpoint.loadedMass(), (System.nanoTime() - start) / 1e6);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println(line.getName() + " nie wznowiona z " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static void writeCheckpoints(List<ProductionLine> lines, Path base) {
+        for (ProductionLine line : lines) {
+            try {
+                line.checkpoint().writeTo(checkpointFile(base, line, lines.size()));
+            } catch (IOException e) {
+                System.err.println(line.getName() + " blad zapisu punktu kontrolnego: " + e.getMessage());
+            }
+        }
+    }
+
+    private static long checkpointSeconds(String[] args) {
+        String value = option(args, "--checkpoint-every=");
+        return value != null ? Long.parseLong(value.trim()) : 5;
+    }
+
+    //odczyt dziennika z --journal: liczba zdarzen kazdego typu i podsumowanie kazdej linii
+    private static void runReplay(Path dir) {
+        List<Path> journals = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.filter(p -> p.getFileName().toString().equals("journal-00000.bin"))
+                    .map(Path::getParent)
+                    .sorted()
+                    .forEach(journals::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (Path journal : journals) {
+            long start = System.nanoTime();
+            long[] byType = new long[16];
+            long[] lastTime = new long[1];
+            LineMetrics metrics = new LineMetrics();
+            JournalReader reader = new JournalReader(journal);
+            long records = reader.read(r -> {
+                byType[r.getType() & 15]++;
+                lastTime[0] = r.getTime();
+            });
+            reader.replay(metrics);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%s: %d rekordow z %.1f s pracy linii (odczyt %.0f tys. rekordow/s)%n",
+                    journal, records, lastTime[0] / 1e9, 2 * records / seconds / 1000);
+            for (int type = 0; type < byType.length; type++) {
+                if (byType[type] > 0) System.out.println("  " + JournalRecord.typeName(type) + ": " + byType[type]);
+            }
+            System.out.println("  " + metrics);
+        }
+    }
+
+    private static boolean hasFlag(String[] args, String flag) {
+        for (String arg : args) {
+            if (arg.equals(flag)) return true;
+        }
+        return false;
+    }
+
+    private static String[] strategies(String[] args, AppConfig config) {
+        String value = option(args, "--strategy=");
+        if (value == null) {
+            return new String[] { config.getLoadingStrategy() };
+        }
+        String[] names = value.split(",");
+        for (int i = 0; i < names.length; i++) {
+            names[i] = LoadingStrategy.valueOf(names[i].trim().toUpperCase()).name();
+        }
+        return names;
+    }
+
+    private static int[] truckCounts(String[] args, AppConfig config) {
+        String value = option(args, "--trucks=");
+        if (value == null) {
+            return new int[] { config.getTruckCount() };
+        }
+        String[] parts = value.split(",");
+        int[] counts = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            counts[i] = Integer.parseInt(parts[i].trim());
+        }
+        return counts;
+    }
+
+    private static List<ParameterSweep.Axis> sweepAxes(String[] args) {
+        List<ParameterSweep.Axis> axes = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--vary=")) {
+                String spec = arg.substring("--vary=".length());
+                int eq = spec.indexOf('=');
+                if (eq <= 0) {
+                    throw new IllegalArgumentException("Oczekiwano --vary=parametr=zakres: " + arg);
+                }
+                axes.add(ParameterSweep.Axis.parse(spec.substring(0, eq), spec.substring(eq + 1)));
+            }
+        }
+        return axes;
+    }
+
+    private static int parallelism(String[] args) {
+        String value = option(args, "--parallelism=");
+        return value != null ? Integer.parseInt(value) : Runtime.getRuntime().availableProcessors();
+    }
+
+    private static int lineCount(String[] args) {
+        String value = option(args, "--lines=");
+        return value != null ? Integer.parseInt(value) : 1;
+    }
+
+    private static long durationSeconds(String[] args) {
+        String value = option(args, "--duration=");
+        return value != null ? Long.parseLong(value) : 0;
+    }
+
+    //wartosc opcji w postaci --nazwa=wartosc albo null
+    private static String option(String[] args, String prefix) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return null;
+    }
 }
@@ -1,5 +1,8 @@
 package org.example.config;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class AppConfig {
     // Parametry taśmy
     private int beltCountMax;
@@ -7,11 +10,19 @@ public class AppConfig {
 
     // Parametry ciężarówki
     private int truckCapacity;
+    private int truckCount = 1;
+
+    // Zaladunek: FIFO, FIRST_FIT, BEST_FIT_DECREASING albo SUBSET_SUM
+    private String loadingStrategy = "FIFO";
+    // true - tasma przyjmuje tylko tyle masy, ile zmiesci ciezarowka
+    private boolean reserveTruckCapacity = true;
+    // Implementacja tasmy: LOCK (zamek i semafory) albo CAS (liczniki w jednym AtomicLong)
+    private String beltType = "LOCK";
+    // Kolejnosc przyjmowania czekajacych cegiel: BARGING, FIFO, WEIGHTED_FAIR albo DEADLINE
+    private String admissionPolicy = "BARGING";
 
-    // Parametry pracowników
-    private WorkerConfig worker1;
-    private WorkerConfig worker2;
-    private WorkerConfig worker3;
+    // Parametry pracowników - dowolna liczba
+    private List<WorkerConfig> workers = new ArrayList<>();
 
     // Gettery i settery
     public int getBeltCountMax() { return beltCountMax; }
@@ -23,24 +34,68 @@ public class AppConfig {
     public int getTruckCapacity() { return truckCapacity; }
     public void setTruckCapacity(int truckCapacity) { this.truckCapacity = truckCapacity; }
 
-    public WorkerConfig getWorker1() { return worker1; }
-    public void setWorker1(WorkerConfig worker1) { this.worker1 = worker1; }
+    public int getTruckCount() { return truckCount; }
+    public void setTruckCount(int truckCount) { this.truckCount = truckCount; }
+
+    public String getLoadingStrategy() { return loadingStrategy; }
+    public void setLoadingStrategy(String loadingStrategy) { this.loadingStrategy = loadingStrategy; }
+
+    public boolean isReserveTruckCapacity() { return reserveTruckCapacity; }
+    public void setReserveTruckCapacity(boolean reserveTruckCapacity) { this.reserveTruckCapacity = reserveTruckCapacity; }
 
-    public WorkerConfig getWorker2() { return worker2; }
-    public void setWorker2(WorkerConfig worker2) { this.worker2 = worker2; }
+    public String getBeltType() { return beltType; }
+    public void setBeltType(String beltType) { this.beltType = beltType; }
 
-    public WorkerConfig getWorker3() { return worker3; }
-    public void setWorker3(WorkerConfig worker3) { this.worker3 = worker3; }
+    public String getAdmissionPolicy() { return admissionPolicy; }
+    public void setAdmissionPolicy(String admissionPolicy) { this.admissionPolicy = admissionPolicy; }
+
+    public List<WorkerConfig> getWorkers() { return workers; }
+    public void setWorkers(List<WorkerConfig> workers) { this.workers = workers; }
 
     // Klasa wewnętrzna dla konfiguracji pracownika
     public static class WorkerConfig {
+        private String name;
         private int brickMass;
         private int interval;
+        private int count = 1;
+        // zmiennosc (domyslnie brak): odchylenie interwalu jako ulamek (0.2 = +-20%),
+        // masy losowanych cegiel (powtorzenie = wieksza waga) i przerwy po cegle
+        private double intervalJitter = 0;
+        private List<Integer> massMix;
+        private double breakProbability = 0;
+        private int breakMillis = 0;
+
+        public WorkerConfig() {}
+
+        public WorkerConfig(String name, int brickMass, int interval) {
+            this.name = name;
+            this.brickMass = brickMass;
+            this.interval = interval;
+        }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
 
         public int getBrickMass() { return brickMass; }
         public void setBrickMass(int brickMass) { this.brickMass = brickMass; }
 
         public int getInterval() { return interval; }
         public void setInterval(int interval) { this.interval = interval; }
+
+        // ilu identycznych pracownikow opisuje ten wpis (np. 500 pracownikow P1)
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+
+        public double getIntervalJitter() { return intervalJitter; }
+        public void setIntervalJitter(double intervalJitter) { this.intervalJitter = intervalJitter; }
+
+        public List<Integer> getMassMix() { return massMix; }
+        public void setMassMix(List<Integer> massMix) { this.massMix = massMix; }
+
+        public double getBreakProbability() { return breakProbability; }
+        public void setBreakProbability(double breakProbability) { this.breakProbability = breakProbability; }
+
+        public int getBreakMillis() { return breakMillis; }
+        public void setBreakMillis(int breakMillis) { this.breakMillis = breakMillis; }
     }
 }
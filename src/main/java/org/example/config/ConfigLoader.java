@@ -3,9 +3,13 @@ package org.example.config;
 import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class ConfigLoader {
     private static final String DEFAULT_CONFIG_PATH = "/config.yaml";
@@ -48,6 +52,20 @@ public class ConfigLoader {
     }
 
 
+    //wersja bez konfiguracji domyslnej - blad czytania albo skladni jest zglaszany wyjatkiem
+    //(przeladowanie nie moze podmienic dzialajacej linii na domyslna po zapisie polowy pliku)
+    public static AppConfig readConfig(Path file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            AppConfig config = new Yaml(new Constructor(AppConfig.class, new LoaderOptions())).load(inputStream);
+            if (config == null) {
+                throw new IOException("Pusty plik konfiguracyjny: " + file);
+            }
+            return config;
+        } catch (YAMLException e) {
+            throw new IOException("Bledna konfiguracja " + file + ": " + e.getMessage(), e);
+        }
+    }
+
     private static AppConfig getDefaultConfig() {
         // Tworzenie domyślnej konfiguracji
         AppConfig config = new AppConfig();
@@ -55,20 +73,9 @@ public class ConfigLoader {
         config.setBeltWeightMax(29);
         config.setTruckCapacity(73);
 
-        AppConfig.WorkerConfig w1 = new AppConfig.WorkerConfig();
-        w1.setBrickMass(1);
-        w1.setInterval(2000);
-        config.setWorker1(w1);
-
-        AppConfig.WorkerConfig w2 = new AppConfig.WorkerConfig();
-        w2.setBrickMass(2);
-        w2.setInterval(2000);
-        config.setWorker2(w2);
-
-        AppConfig.WorkerConfig w3 = new AppConfig.WorkerConfig();
-        w3.setBrickMass(3);
-        w3.setInterval(2000);
-        config.setWorker3(w3);
+        config.getWorkers().add(new AppConfig.WorkerConfig("P1", 1, 2000));
+        config.getWorkers().add(new AppConfig.WorkerConfig("P2", 2, 2000));
+        config.getWorkers().add(new AppConfig.WorkerConfig("P3", 3, 2000));
 
         return config;
     }
@@ -0,0 +1,89 @@
+package org.example.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Obserwuje plik konfiguracyjny (WatchService na jego katalogu) i po kazdej zmianie
+ * podaje nowa konfiguracje do onChange. Seria zapisow edytora jest sklejana w jedno
+ * przeladowanie, a plik, ktorego nie da sie wczytac, jest pomijany z komunikatem.
+ */
+public class ConfigWatcher implements AutoCloseable {
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    private final Path file;
+    private final Consumer<AppConfig> onChange;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    public ConfigWatcher(Path file, Consumer<AppConfig> onChange) {
+        this.file = file.toAbsolutePath();
+        this.onChange = onChange;
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.thread = new Thread(this::watchLoop, "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = touchesFile(key);
+                //kolejne zdarzenia z okna DEBOUNCE_MILLIS naleza do tego samego zapisu
+                WatchKey next;
+                while ((next = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= touchesFile(next);
+                }
+                if (changed) reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            //zamkniecie obserwatora
+        }
+    }
+
+    private boolean touchesFile(WatchKey key) {
+        boolean touches = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path name && name.equals(file.getFileName())) {
+                touches = true;
+            }
+        }
+        key.reset();
+        return touches;
+    }
+
+    private void reload() {
+        try {
+            onChange.accept(ConfigLoader.readConfig(file));
+            System.out.println("Przeladowano konfiguracje z " + file);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Konfiguracja " + file + " nie zostala przeladowana: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package org.example.flow;
+
+import org.example.model.EventLog;
+import org.example.model.IntRingBuffer;
+import org.example.model.LoadingScratch;
+import org.example.model.LoadingStrategy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tasma jako ogniwo potoku Flow: odbiera cegly od wielu pracownikow (connect)
+ * i wydaje partie ciezarowkom (subscribe).
+ * <p>
+ * Od pracownikow prosi (request(1)) tylko o tyle cegiel, ile zmiesci sie
+ * jeszcze w limicie liczby, i tylko gdy zostala masa - pelna tasma po prostu
+ * przestaje prosic, a pracownicy czekaja z cegla. Cegla, ktora nie zmiesci sie
+ * masa, czeka w kolejce pracownikow i oznacza pelna tasme, jak w ConveyorBelt.
+ * <p>
+ * Zapotrzebowanie ciezarowki liczone jest w jednostkach masy: request(n) to
+ * wolna ladownosc, a kazda partia zuzywa swoja mase (co najmniej 1, wiec
+ * partii nigdy nie jest wiecej niz zamowiono). Partie wydawane sa z pelnej
+ * tasmy ciezarowce, ktora najdawniej zglosila zapotrzebowanie; pusta partia
+ * znaczy, ze nic sie juz nie zmiesci, i zeruje zapotrzebowanie (ciezarowka jedzie).
+ * <p>
+ * Caly stan tasmy zmienia jedno zadanie naraz na podanym wykonawcy (kolejka
+ * sygnalow), wiec nie ma tu zadnych zamkow.
+ */
+public class BeltProcessor implements Flow.Publisher<BeltProcessor.Batch> {
+
+    //partia cegiel dla ciezarowki
+    public record Batch(int[] bricks, int mass) {
+        public int count() { return bricks.length; }
+    }
+
+    private final int countMax;
+    private final int weightMax;
+    private final LoadingStrategy strategy;
+    private final Executor executor;
+
+    //kolejka sygnalow: wykonuje je jedno zadanie na wykonawcy
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    //stan zmieniany tylko w drain()
+    private final IntRingBuffer bricks;
+    private final LoadingScratch scratch;
+    private final int[] taken;
+    private int weight = 0;
+    private final List<Inlet> inlets = new ArrayList<>();
+    private int nextInlet = 0;          //od ktorego pracownika zaczac prosic - po kolei, bez faworytow
+    private int requested = 0;          //cegly zamowione, jeszcze nie dostarczone
+    private final ArrayDeque<Inlet> waiting = new ArrayDeque<>(); //cegly, ktore sie nie zmiescily
+    private final ArrayDeque<Outlet> docks = new ArrayDeque<>();  //ciezarowki z zapotrzebowaniem
+    private final List<Outlet> outlets = new ArrayList<>();
+    private long fullSinceNanos = 0;
+
+    //statystyki do odczytu z innych watkow
+    private volatile int count = 0;
+    private volatile int currentWeight = 0;
+    private volatile long bricksAdded = 0;
+    private volatile long massAdded = 0;
+    private volatile long stallNanos = 0;
+
+    public BeltProcessor(int countMax, int weightMax, LoadingStrategy strategy, Executor executor) {
+        if (countMax <= 0 || weightMax <= 0) {
+            throw new IllegalArgumentException("Limity tasmy musza byc dodatnie");
+        }
+        this.countMax = countMax;
+        this.weightMax = weightMax;
+        this.strategy = strategy;
+        this.executor = executor;
+        this.bricks = new IntRingBuffer(countMax);
+        this.scratch = new LoadingScratch(countMax);
+        this.taken = new int[countMax];
+    }
+
+    public int getCount() { return count; }
+    public int getWeight() { return currentWeight; }
+    public long getBricksAdded() { return bricksAdded; }
+    public long getMassAdded() { return massAdded; }
+    public long getStallNanos() { return stallNanos; }
+
+    //pracownik zaczyna odkladac cegly na te tasme
+    public void connect(Flow.Publisher<Integer> worker) {
+        worker.subscribe(new Inlet());
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Batch> subscriber) {
+        signal(() -> {
+            Outlet outlet = new Outlet(subscriber);
+            outlets.add(outlet);
+            subscriber.onSubscribe(outlet);
+        });
+    }
+
+    //konczy potok: pracownicy sa odlaczani, ciezarowki dostaja onComplete
+    public void close() {
+        signal(() -> {
+            for (Inlet inlet : inlets) inlet.subscription.cancel();
+            inlets.clear();
+            for (Outlet outlet : outlets) {
+                if (!outlet.cancelled) outlet.subscriber.onComplete();
+                outlet.cancelled = true;
+            }
+            docks.clear();
+        });
+    }
+
+    private void signal(Runnable task) {
+        mailbox.offer(task);
+        if (wip.getAndIncrement() == 0) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            Runnable task;
+            while ((task = mailbox.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    EventLog.shared().error("tasma", e.toString());
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    //odklada czekajace cegly, laduje ciezarowki z pelnej tasmy i zamawia kolejne cegly
+    private void pump() {
+        boolean progress = true;
+        while (progress) {
+            while (!waiting.isEmpty() && fits(waiting.peek().parked)) {
+                Inlet inlet = waiting.poll();
+                place(inlet.parked);
+                inlet.parked = 0;
+            }
+            progress = isFull() && loadTruck();
+        }
+        requestBricks();
+
+        long now = System.nanoTime();
+        if (isFull()) {
+            if (fullSinceNanos == 0) fullSinceNanos = now;
+        } else if (fullSinceNanos != 0) {
+            stallNanos += now - fullSinceNanos;
+            fullSinceNanos = 0;
+        }
+        count = bricks.size();
+        currentWeight = weight;
+    }
+
+    private boolean fits(int mass) {
+        return !bricks.isFull() && weight + mass <= weightMax;
+    }
+
+    private void place(int mass) {
+        bricks.offer(mass);
+        weight += mass;
+        bricksAdded++;
+        massAdded += mass;
+    }
+
+    //pelna: brak miejsca albo czekajaca cegla sie nie miesci
+    private boolean isFull() {
+        return bricks.isFull() || !waiting.isEmpty();
+    }
+
+    //jedna partia dla pierwszej czekajacej ciezarowki; false gdy zadnej nie ma
+    private boolean loadTruck() {
+        Outlet dock = docks.peek();
+        if (dock == null) return false;
+        int n = strategy.take(bricks, (int) Math.min(dock.demand, Integer.MAX_VALUE), scratch, taken);
+        int mass = 0;
+        for (int i = 0; i < n; i++) mass += taken[i];
+        weight -= mass;
+        //nic sie nie zmiescilo - ciezarowka jedzie z tym, co ma
+        dock.demand = n == 0 ? 0 : dock.demand - mass;
+        if (dock.demand == 0) docks.poll();
+        try {
+            dock.subscriber.onNext(new Batch(Arrays.copyOf(taken, n), mass));
+        } catch (RuntimeException e) {
+            //regula Flow 2.13: blad odbiorcy konczy jego subskrypcje
+            dock.cancelled = true;
+            docks.remove(dock);
+            outlets.remove(dock);
+            EventLog.shared().error("tasma", "odbiorca partii: " + e);
+        }
+        return true;
+    }
+
+    //zamawia po jednej cegle od kolejnych wolnych pracownikow, dopoki zamowienia mieszcza sie w limitach
+    private void requestBricks() {
+        int n = inlets.size();
+        //przejscie od stalego poczatku - kursor przesuwa sie za ostatniego obsluzonego
+        int start = nextInlet;
+        for (int i = 0; i < n; i++) {
+            if (bricks.size() + requested + waiting.size() >= countMax || weight >= weightMax) return;
+            Inlet inlet = inlets.get((start + i) % n);
+            if (!inlet.outstanding && inlet.parked == 0) {
+                inlet.outstanding = true;
+                requested++;
+                nextInlet = (start + i + 1) % n;
+                inlet.subscription.request(1);
+            }
+        }
+    }
+
+    //wejscie od jednego pracownika
+    private final class Inlet implements Flow.Subscriber<Integer> {
+        private Flow.Subscription subscription;
+        private boolean outstanding = false;
+        private int parked = 0; //cegla czekajaca na miejsce
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            signal(() -> {
+                if (this.subscription != null) {
+                    subscription.cancel();
+                    return;
+                }
+                this.subscription = subscription;
+                inlets.add(this);
+                pump();
+            });
+        }
+
+        @Override
+        public void onNext(Integer mass) {
+            signal(() -> {
+                if (outstanding) {
+                    outstanding = false;
+                    requested--;
+                }
+                if (mass == null || mass <= 0) {
+                    EventLog.shared().error("tasma", "niepoprawna cegla: " + mass);
+                } else if (waiting.isEmpty() && fits(mass)) {
+                    place(mass);
+                } else {
+                    parked = mass;
+                    waiting.add(this);
+                }
+                pump();
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            EventLog.shared().error("tasma", "pracownik: " + throwable);
+            onComplete();
+        }
+
+        @Override
+        public void onComplete() {
+            signal(() -> {
+                inlets.remove(this);
+                if (outstanding) {
+                    outstanding = false;
+                    requested--;
+                }
+                if (!inlets.isEmpty()) nextInlet %= inlets.size();
+                pump();
+            });
+        }
+    }
+
+    //wyjscie do jednej ciezarowki
+    private final class Outlet implements Flow.Subscription {
+        private final Flow.Subscriber<? super Batch> subscriber;
+        private long demand = 0;
+        private volatile boolean cancelled = false;
+
+        Outlet(Flow.Subscriber<? super Batch> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            signal(() -> {
+                if (cancelled) return;
+                if (n <= 0) {
+                    cancel();
+                    subscriber.onError(new IllegalArgumentException("request(" + n + ")"));
+                    return;
+                }
+                if (demand == 0) docks.add(this);
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                pump();
+            });
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) return;
+            signal(() -> {
+                cancelled = true;
+                docks.remove(this);
+                outlets.remove(this);
+            });
+        }
+    }
+}
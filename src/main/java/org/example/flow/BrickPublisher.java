@@ -0,0 +1,123 @@
+package org.example.flow;
+
+import org.example.model.WorkerVariation;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pracownik jako wydawca cegiel. Co interval ms ma gotowa cegle i oddaje ja
+ * dopiero, gdy odbiorca o nia poprosi (request) - bez zapotrzebowania czeka
+ * z cegla w rekach, tak jak pracownik przy pelnej tasmie. Nie zajmuje watku:
+ * kolejne cegly odmierza planista. Masa i odstep kolejnych cegiel zmieniaja sie
+ * wedlug WorkerVariation, jak w Worker.
+ */
+public class BrickPublisher implements Flow.Publisher<Integer> {
+    private final String name;
+    private final int mass;
+    private final long intervalMillis;
+    private final ScheduledExecutorService scheduler;
+    private volatile WorkerVariation variation = WorkerVariation.NONE;
+
+    //jeden odbiorca naraz (stan pod this)
+    private Flow.Subscriber<? super Integer> subscriber;
+    private long demand = 0;
+    private boolean brickReady = false;
+    private int readyMass; //masa cegly w rekach
+    private ScheduledFuture<?> nextBrick;
+    private boolean done = false;
+    private long produced = 0;
+
+    public BrickPublisher(String name, int mass, long intervalMillis, ScheduledExecutorService scheduler) {
+        if (mass <= 0) {
+            throw new IllegalArgumentException("Masa cegly musi byc dodatnia: " + mass);
+        }
+        this.name = name;
+        this.mass = mass;
+        this.intervalMillis = Math.max(0, intervalMillis);
+        this.scheduler = scheduler;
+    }
+
+    public String getName() { return name; }
+    public int getMass() { return mass; }
+    public WorkerVariation getVariation() { return variation; }
+    public void setVariation(WorkerVariation variation) { this.variation = variation; }
+    public synchronized long getProduced() { return produced; }
+
+    @Override
+    public synchronized void subscribe(Flow.Subscriber<? super Integer> subscriber) {
+        if (this.subscriber != null || done) {
+            subscriber.onSubscribe(CANCELLED);
+            subscriber.onError(new IllegalStateException("Pracownik " + name + " ma juz odbiorce"));
+            return;
+        }
+        this.subscriber = subscriber;
+        subscriber.onSubscribe(new Subscription());
+        //pierwsza cegla po pierwszym interwale, jak w Worker.run
+        nextBrick = scheduler.schedule(this::brickMade, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    //pracownik konczy prace: odbiorca dostaje onComplete
+    public synchronized void close() {
+        if (done) return;
+        done = true;
+        if (nextBrick != null) nextBrick.cancel(false);
+        if (subscriber != null) subscriber.onComplete();
+    }
+
+    private synchronized void brickMade() {
+        nextBrick = null;
+        if (done) return;
+        readyMass = variation.nextMass(mass, ThreadLocalRandom.current());
+        brickReady = true;
+        deliver();
+    }
+
+    //oddaje gotowa cegle, jesli odbiorca na nia czeka, i zaczyna nastepna (pod this)
+    private void deliver() {
+        if (!brickReady || demand == 0 || done) return;
+        brickReady = false;
+        demand--;
+        produced++;
+        subscriber.onNext(readyMass);
+        if (!done) {
+            long delay = Math.max(0, variation.nextDelay(intervalMillis, ThreadLocalRandom.current()));
+            nextBrick = scheduler.schedule(this::brickMade, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private final class Subscription implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+            synchronized (BrickPublisher.this) {
+                if (done) return;
+                if (n <= 0) {
+                    done = true;
+                    if (nextBrick != null) nextBrick.cancel(false);
+                    subscriber.onError(new IllegalArgumentException("request(" + n + ")"));
+                    return;
+                }
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                deliver();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (BrickPublisher.this) {
+                done = true;
+                if (nextBrick != null) nextBrick.cancel(false);
+            }
+        }
+    }
+
+    static final Flow.Subscription CANCELLED = new Flow.Subscription() {
+        @Override
+        public void request(long n) { }
+        @Override
+        public void cancel() { }
+    };
+}
@@ -0,0 +1,89 @@
+package org.example.flow;
+
+import org.example.config.AppConfig;
+import org.example.model.LineScheduler;
+import org.example.model.LoadingStrategy;
+import org.example.model.ProductionLine;
+import org.example.model.Truck;
+import org.example.model.TruckDispatcher;
+import org.example.model.WorkerVariation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Linia produkcyjna zlozona jako potok Flow: pracownicy -> tasma -> ciezarowki.
+ * Te same limity co ProductionLine, ale bez watku na pracownika i bez zamkow:
+ * cegly odmierza planista, tasma dziala na dowolnym wykonawcy, a pelna tasma
+ * hamuje pracownikow przez brak zapotrzebowania.
+ */
+public class FlowLine {
+    private final String name;
+    private final BeltProcessor belt;
+    private final List<BrickPublisher> workers;
+    private final List<TruckSubscriber> trucks;
+
+    public FlowLine(String name, AppConfig config) {
+        this(name, config, config.getTruckCount(), ForkJoinPool.commonPool(), LineScheduler.shared());
+    }
+
+    public FlowLine(String name, AppConfig config, int truckCount, Executor executor, ScheduledExecutorService scheduler) {
+        if (truckCount <= 0) {
+            throw new IllegalArgumentException("Flota musi miec co najmniej jedna ciezarowke");
+        }
+        this.name = name;
+        this.belt = new BeltProcessor(config.getBeltCountMax(), config.getBeltWeightMax(),
+                LoadingStrategy.valueOf(config.getLoadingStrategy()), executor);
+        //cegla ponad limit tasmy albo ladownosc (takze z mieszanki mas) zatrzymalaby potok na zawsze
+        ProductionLine.checkWorkers(config);
+        List<BrickPublisher> publishers = new ArrayList<>();
+        ProductionLine.forEachWorker(config, (workerName, wc) -> {
+            BrickPublisher publisher = new BrickPublisher(workerName, wc.getBrickMass(), wc.getInterval(), scheduler);
+            publisher.setVariation(WorkerVariation.of(wc));
+            publishers.add(publisher);
+        });
+        this.workers = Collections.unmodifiableList(publishers);
+        List<TruckSubscriber> subscribers = new ArrayList<>(truckCount);
+        for (int i = 1; i <= truckCount; i++) {
+            Truck truck = new Truck("T" + i, config.getTruckCapacity());
+            subscribers.add(new TruckSubscriber(truck, TruckDispatcher.DEFAULT_UNLOAD_PAUSE_MILLIS, scheduler));
+        }
+        this.trucks = Collections.unmodifiableList(subscribers);
+    }
+
+    public String getName() { return name; }
+    public BeltProcessor getBelt() { return belt; }
+    public List<BrickPublisher> getWorkers() { return workers; }
+    public List<TruckSubscriber> getTrucks() { return trucks; }
+
+    public void setUnloadPauseMillis(long millis) {
+        for (TruckSubscriber truck : trucks) truck.setUnloadPauseMillis(millis);
+    }
+
+    //ciezarowki ustawiaja sie w kolejce, potem pracownicy zaczynaja odkladac cegly
+    public void start() {
+        for (TruckSubscriber truck : trucks) belt.subscribe(truck);
+        for (BrickPublisher worker : workers) belt.connect(worker);
+    }
+
+    public void stop() {
+        for (BrickPublisher worker : workers) worker.close();
+        belt.close();
+    }
+
+    public long getTrips() {
+        long sum = 0;
+        for (TruckSubscriber truck : trucks) sum += truck.getTrips();
+        return sum;
+    }
+
+    public long getDeliveredMass() {
+        long sum = 0;
+        for (TruckSubscriber truck : trucks) sum += truck.getDeliveredMass();
+        return sum;
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.flow;
+
+import org.example.model.EventLog;
+import org.example.model.Truck;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ciezarowka jako odbiorca partii z tasmy. Zamawia tyle masy, ile ma wolnej
+ * ladownosci; gdy jest pelna (albo tasma da pusta partie), odjezdza,
+ * po czasie rozladunku wraca pusta i zamawia cala ladownosc od nowa.
+ * Pusta partia dla pustej ciezarowki to blad konfiguracji - ciezarowka sie odlacza.
+ */
+public class TruckSubscriber implements Flow.Subscriber<BeltProcessor.Batch> {
+    private final Truck truck;
+    private final ScheduledExecutorService scheduler;
+    private volatile long unloadPauseMillis;
+    private volatile Flow.Subscription subscription;
+
+    private final LongAdder trips = new LongAdder();
+    private final LongAdder deliveredMass = new LongAdder();
+
+    public TruckSubscriber(Truck truck, long unloadPauseMillis, ScheduledExecutorService scheduler) {
+        this.truck = truck;
+        this.unloadPauseMillis = unloadPauseMillis;
+        this.scheduler = scheduler;
+    }
+
+    public Truck getTruck() { return truck; }
+    public long getTrips() { return trips.sum(); }
+    public long getDeliveredMass() { return deliveredMass.sum(); }
+    public void setUnloadPauseMillis(long millis) { this.unloadPauseMillis = millis; }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        requestCapacity();
+    }
+
+    @Override
+    public void onNext(BeltProcessor.Batch batch) {
+        truck.load(batch.bricks(), batch.count());
+        deliveredMass.add(batch.mass());
+        if (batch.count() == 0 || truck.isFull()) {
+            depart();
+        }
+    }
+
+    //pelna jedzie do rozladunku. Pusta dostala pusta partie, bo zadna cegla nie miesci sie
+    //w calej ladownosci - ponowne zamowienie wracaloby tu w kolko, wiec subskrypcja sie konczy
+    private void depart() {
+        if (truck.getActual() == 0) {
+            subscription.cancel();
+            truck.stopTruck();
+            EventLog.shared().error(truck.getName(), "pusta partia dla pustej ciezarowki - cegla ciezsza niz ladownosc " + truck.getSize());
+            return;
+        }
+        trips.increment();
+        scheduler.schedule(() -> {
+            truck.unload();
+            requestCapacity();
+        }, unloadPauseMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void requestCapacity() {
+        int free = truck.remaining();
+        if (free > 0) subscription.request(free);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        EventLog.shared().error(truck.getName(), throwable.toString());
+    }
+
+    @Override
+    public void onComplete() {
+        truck.stopTruck();
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.gui;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import org.example.model.LineListener;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Subskrybent modelu po stronie GUI. Watki modelu tylko publikuja najnowszy stan
+ * (atomowe migawki i liczniki), a wlasciwosci bindowane w MainWindow sa
+ * aktualizowane raz na klatke w pulsie JavaFX i tylko gdy wartosc sie zmienila.
+ * Koszt GUI zalezy wiec od liczby klatek, a nie od liczby zdarzen.
+ */
+public class FxLineView implements LineListener {
+
+    // model laduje cala partie naraz; GUI pokazuje przyrost stopniowo, jedna jednostka masy na krok
+    private static final long LOAD_STEP_NANOS = 25_000_000L;
+    private long lastLoadStep;
+
+    // niezmienne migawki publikowane przez watki modelu
+    private record BeltState(int count, int weight, int countMax, int weightMax) { }
+    private record TruckState(String name, int actual, int size) { }
+
+    private final AtomicReference<BeltState> beltState = new AtomicReference<>(new BeltState(0, 0, 0, 0));
+    private final AtomicReference<TruckState> truckState = new AtomicReference<>(new TruckState(null, 0, 0));
+
+    // zdarzenia jednorazowe - liczniki zamiast osobnych runLater, puls odpala akcje raz na klatke
+    private final Map<String, Integer> addedBricks = new ConcurrentHashMap<>(); // pracownik -> ostatnia masa
+    private final AtomicInteger beltFullEvents = new AtomicInteger();
+    private final AtomicInteger departedEvents = new AtomicInteger();
+    private int beltFullSeen;
+    private int departedSeen;
+
+    // wlasciwosci zmieniane tylko na watku JavaFX
+    private final IntegerProperty brickCount = new SimpleIntegerProperty(0);
+    private final IntegerProperty brickWeight = new SimpleIntegerProperty(0);
+    private final IntegerProperty countMax = new SimpleIntegerProperty(0);
+    private final IntegerProperty weightMax = new SimpleIntegerProperty(0);
+    private final IntegerProperty truckWeight = new SimpleIntegerProperty(0);
+    private final IntegerProperty truckCapacity = new SimpleIntegerProperty(0);
+
+    // akcje wywolywane na watku JavaFX (animacje, powiadomienia)
+    private final BiConsumer<String, Integer> onBrickAdded;
+    private final Runnable onBeltFull;
+    private final Runnable onTruckDeparted;
+
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            refresh(now);
+        }
+    };
+
+    public FxLineView(BiConsumer<String, Integer> onBrickAdded, Runnable onBeltFull, Runnable onTruckDeparted) {
+        this.onBrickAdded = onBrickAdded;
+        this.onBeltFull = onBeltFull;
+        this.onTruckDeparted = onTruckDeparted;
+    }
+
+    public IntegerProperty brickCountProperty() { return brickCount; }
+    public IntegerProperty brickWeightProperty() { return brickWeight; }
+    public IntegerProperty countMaxProperty() { return countMax; }
+    public IntegerProperty weightMaxProperty() { return weightMax; }
+    public IntegerProperty truckWeightProperty() { return truckWeight; }
+    public IntegerProperty truckCapacityProperty() { return truckCapacity; }
+
+    // wolane na watku JavaFX
+    public void start() { pulse.start(); }
+    public void stop() { pulse.stop(); }
+
+    // jedna klatka: przepisanie najnowszego stanu na wlasciwosci
+    private void refresh(long now) {
+        BeltState belt = beltState.get();
+        setIfChanged(brickCount, belt.count());
+        setIfChanged(brickWeight, belt.weight());
+        setIfChanged(countMax, belt.countMax());
+        setIfChanged(weightMax, belt.weightMax());
+
+        TruckState truck = truckState.get();
+        paceTruckWeight(truck.actual(), now);
+        setIfChanged(truckCapacity, truck.size());
+
+        for (Iterator<Map.Entry<String, Integer>> it = addedBricks.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Integer> entry = it.next();
+            it.remove();
+            onBrickAdded.accept(entry.getKey(), entry.getValue());
+        }
+
+        int full = beltFullEvents.get();
+        if (full != beltFullSeen) {
+            beltFullSeen = full;
+            onBeltFull.run();
+        }
+        int departed = departedEvents.get();
+        if (departed != departedSeen) {
+            departedSeen = departed;
+            onTruckDeparted.run();
+        }
+    }
+
+    // spadek (rozladunek, nowa ciezarowka) od razu, wzrost po jednej jednostce co LOAD_STEP_NANOS
+    private void paceTruckWeight(int target, long now) {
+        int shown = truckWeight.get();
+        if (target <= shown) {
+            setIfChanged(truckWeight, target);
+            lastLoadStep = now;
+            return;
+        }
+        long steps = (now - lastLoadStep) / LOAD_STEP_NANOS;
+        if (steps > 0) {
+            truckWeight.set((int) Math.min(target, shown + steps));
+            lastLoadStep = now;
+        }
+    }
+
+    private static void setIfChanged(IntegerProperty property, int value) {
+        if (property.get() != value) property.set(value);
+    }
+
+    @Override
+    public void brickAdded(String worker, int mass) {
+        addedBricks.put(worker, mass);
+    }
+
+    @Override
+    public void beltChanged(int count, int weight, int countMax, int weightMax) {
+        beltState.set(new BeltState(count, weight, countMax, weightMax));
+    }
+
+    @Override
+    public void beltFull() {
+        beltFullEvents.incrementAndGet();
+    }
+
+    @Override
+    public void truckDocked(String truck, int actual, int size) {
+        truckState.set(new TruckState(truck, actual, size));
+    }
+
+    @Override
+    public void truckChanged(String truck, int actual, int size) {
+        // pokazujemy tylko ciezarowke przy tasmie, nie te w trakcie rozladunku
+        truckState.updateAndGet(state -> truck.equals(state.name()) ? new TruckState(truck, actual, size) : state);
+    }
+
+    @Override
+    public void truckDeparted(String truck) {
+        departedEvents.incrementAndGet();
+    }
+}
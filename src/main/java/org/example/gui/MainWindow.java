@@ -10,8 +10,8 @@ import javafx.stage.Stage;
 import org.example.app.AppMain;
 import javafx.scene.control.Label;
 import org.example.config.AppConfig;
-import org.example.config.ConfigLoader;
-import org.example.model.ConveyorBelt;
+import org.example.model.Belt;
+import org.example.model.ProductionLine;
 import javafx.scene.layout.VBox;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
@@ -22,9 +22,10 @@ public class MainWindow extends Application {
     private final StackPane root = new StackPane();
     private WorkersGui workersGui;
     private Stage primaryStageRef;
-    private ConveyorBelt belt;
+    private ProductionLine line;
     private final CountDownLatch uiInitLatch = new CountDownLatch(1);
     private VBox truckBox; // Dodajemy referencję do truckBox jako pole klasy
+    private FxLineView lineView; // subskrybent modelu po stronie GUI
 
 
     private void initializeUI(Stage primaryStage) {
@@ -98,9 +99,14 @@ public class MainWindow extends Application {
 
     private void initializeActors() {
         try {
-            AppConfig config = ConfigLoader.loadConfig();
+            AppConfig config = AppMain.loadConfig();
             // Utwórz pracowników
             AppMain.initializeActors(config);
+            this.line = AppMain.line;
+
+            // stan poczatkowy, zanim model opublikuje pierwsze zdarzenie
+            Belt belt = line.getBelt();
+            lineView.beltChanged(0, 0, belt.getCountMax(), belt.getWeightMax());
 
             // Ustaw listenery PRZED uruchomieniem wątków
             setupWorkerListeners();
@@ -119,10 +125,7 @@ public class MainWindow extends Application {
                 Thread.sleep(1000); // Krótsze opóźnienie, 1s powinno wystarczyć
 
                 // Uruchom wątki
-                if (AppMain.worker1 != null) AppMain.worker1.start();
-                if (AppMain.worker2 != null) AppMain.worker2.start();
-                if (AppMain.worker3 != null) AppMain.worker3.start();
-                if (AppMain.truck != null) AppMain.truck.start();
+                AppMain.startActors();
 
                 System.out.println("All threads started successfully");
 
@@ -142,10 +145,10 @@ public class MainWindow extends Application {
         countLabel.textProperty().bind(
                 Bindings.createStringBinding(
                         () -> String.format("Liczba \uD83E\uDDF1 %d / %d",
-                                belt.brickCountProperty().get(),
-                                belt.countMaxProperty().get()),
-                        belt.brickCountProperty(),
-                        belt.countMaxProperty()
+                                lineView.brickCountProperty().get(),
+                                lineView.countMaxProperty().get()),
+                        lineView.brickCountProperty(),
+                        lineView.countMaxProperty()
                 )
         );
 
@@ -153,10 +156,10 @@ public class MainWindow extends Application {
         weightLabel.textProperty().bind(
                 Bindings.createStringBinding(
                         () -> String.format("Masa: \uD83E\uDDF1 %d / %d",
-                                belt.brickWeightProperty().get(),
-                                belt.weightMaxProperty().get()),
-                        belt.brickWeightProperty(),
-                        belt.weightMaxProperty()
+                                lineView.brickWeightProperty().get(),
+                                lineView.weightMaxProperty().get()),
+                        lineView.brickWeightProperty(),
+                        lineView.weightMaxProperty()
                 )
         );
 
@@ -180,20 +183,15 @@ public class MainWindow extends Application {
         constantLabel.getStyleClass().add("title-label");
 
         Label weightLabel = new Label();
-        // Bind zostanie ustawiony, gdy Truck jest zainicjalizowany
-        Platform.runLater(() -> {
-            if (AppMain.truck != null) {
-                weightLabel.textProperty().bind(
-                        Bindings.createStringBinding(
-                                () -> String.format("Liczba \uD83E\uDDF1 %d / %d",
-                                        AppMain.truck.currentWeightProperty().get(),
-                                        AppMain.truck.maxCapacityProperty().get()),
-                                AppMain.truck.currentWeightProperty(),
-                                AppMain.truck.maxCapacityProperty()
-                        )
-                );
-            }
-        });
+        weightLabel.textProperty().bind(
+                Bindings.createStringBinding(
+                        () -> String.format("Liczba \uD83E\uDDF1 %d / %d",
+                                lineView.truckWeightProperty().get(),
+                                lineView.truckCapacityProperty().get()),
+                        lineView.truckWeightProperty(),
+                        lineView.truckCapacityProperty()
+                )
+        );
 
         // Create info box
         VBox truckBox = new VBox(5);
@@ -219,53 +217,8 @@ public class MainWindow extends Application {
         // Ensure stage reference is up to date
         workersGui.updateStage(primaryStageRef);
 
-        // Set up listeners for worker notifications
-        if (AppMain.worker1 != null) {
-            AppMain.worker1.informationProperty().addListener((obs, oldVal, newVal) -> {
-                if (newVal) {
-                    Platform.runLater(() -> workersGui.showNotification(true, "P1"));
-                }
-            });
-        }
-
-        if (AppMain.worker2 != null) {
-            AppMain.worker2.informationProperty().addListener((obs, oldVal, newVal) -> {
-                if (newVal) {
-                    Platform.runLater(() -> workersGui.showNotification(true, "P2"));
-                }
-            });
-        }
-
-        if (AppMain.worker3 != null) {
-            AppMain.worker3.informationProperty().addListener((obs, oldVal, newVal) -> {
-                if (newVal) {
-                    Platform.runLater(() -> workersGui.showNotification(true, "P3"));
-                }
-            });
-        }
-
-        // Set up listener for belt animation
-        if (belt != null) {
-            belt.informationProperty().addListener((obs, oldVal, newVal) -> {
-                if (newVal) {
-                    Platform.runLater(() -> background.moveBrick());
-                }
-            });
-        }
-
-        // Set up listener for truck animation
-        if (AppMain.truck != null) {
-            AppMain.truck.informationProperty().addListener((obs, oldVal, newVal) -> {
-                if (newVal) {
-                    Platform.runLater(() -> {
-                        // Wywołujemy animację ciężarówki
-                        background.moveTruck();
-                        // Wywołujemy animację przemieszczenia truckBox
-                        background.moveTruckBox(truckBox);
-                    });
-                }
-            });
-        }
+        // GUI jest tylko jednym z subskrybentów linii
+        if (line != null) line.addListener(lineView);
     }
 
     public Stage getPrimaryStageRef() {
@@ -284,13 +237,21 @@ public class MainWindow extends Application {
         try {
             // Store reference to primary stage
             this.primaryStageRef = primaryStage;
-            // Uzyskanie referencji do taśmy produkcyjnej
-            this.belt = AppMain.belt;
+            this.lineView = new FxLineView(
+                    (worker, mass) -> workersGui.showNotification(true, worker),
+                    background::moveBrick,
+                    () -> {
+                        // Wywołujemy animację ciężarówki
+                        background.moveTruck();
+                        // Wywołujemy animację przemieszczenia truckBox
+                        background.moveTruckBox(truckBox);
+                    });
 
             System.out.println("Starting MainWindow setup");
 
             // =========== ETAP 1: Inicjalizacja podstawowego UI ===========
             initializeUI(primaryStage);
+            lineView.start(); // odswiezanie etykiet raz na klatke
 
             // =========== ETAP 2: Inicjalizacja WorkersGui ===========
             initializeWorkersGui();
@@ -313,26 +274,12 @@ public class MainWindow extends Application {
         try {
             System.out.println("Zatrzymywanie aplikacji...");
 
-            // Zatrzymujemy wątki pracowników
-            if (AppMain.worker1 != null) {
-                AppMain.worker1.stopWorker();
-                System.out.println("Worker1 zatrzymany");
-            }
-
-            if (AppMain.worker2 != null) {
-                AppMain.worker2.stopWorker();
-                System.out.println("Worker2 zatrzymany");
-            }
-
-            if (AppMain.worker3 != null) {
-                AppMain.worker3.stopWorker();
-                System.out.println("Worker3 zatrzymany");
-            }
+            if (lineView != null) lineView.stop();
 
-            // Zatrzymujemy ciężarówkę
-            if (AppMain.truck != null) {
-                AppMain.truck.stopTruck(); // Używamy dedykowanej metody stopTruck
-                System.out.println("Truck zatrzymany");
+            // Zatrzymujemy wątki pracowników i ciężarówki
+            if (line != null) {
+                AppMain.stopActors();
+                System.out.println("Linia " + line.getName() + " zatrzymana (" + line.getWorkers().size() + " pracownikow)");
             }
 
             // Daj wątkom chwilę na zakończenie
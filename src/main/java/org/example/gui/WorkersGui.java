@@ -2,8 +2,9 @@ package org.example.gui;
 
 import javafx.application.Platform;
 import javafx.stage.Stage;
-import org.example.model.ConveyorBelt;
-import org.example.app.AppMain;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Class responsible for displaying worker notifications in the GUI
@@ -11,11 +12,9 @@ import org.example.app.AppMain;
 public class WorkersGui {
 
     private Stage stage;
-    private final ConveyorBelt belt = AppMain.belt;
 
-    private long lastP1NotificationTime = 0;
-    private long lastP2NotificationTime = 0;
-    private long lastP3NotificationTime = 0;
+    // czas ostatniego powiadomienia dla kazdego pracownika (tylko watek JavaFX)
+    private final Map<String, Long> lastNotificationTime = new HashMap<>();
 
     private static final long NOTIFICATION_COOLDOWN = 500;
 
@@ -36,32 +35,11 @@ public class WorkersGui {
                     return;
                 }
                 long currentTime = System.currentTimeMillis();
-                boolean canShowNotification = false;
-
-                switch (workerName) {
-                    case "P1":
-                        if (currentTime - lastP1NotificationTime > NOTIFICATION_COOLDOWN) {
-                            lastP1NotificationTime = currentTime;
-                            canShowNotification = true;
-                        }
-                        break;
-                    case "P2":
-                        if (currentTime - lastP2NotificationTime > NOTIFICATION_COOLDOWN) {
-                            lastP2NotificationTime = currentTime;
-                            canShowNotification = true;
-                        }
-                        break;
-                    case "P3":
-                        if (currentTime - lastP3NotificationTime > NOTIFICATION_COOLDOWN) {
-                            lastP3NotificationTime = currentTime;
-                            canShowNotification = true;
-                        }
-                        break;
-                }
-
-                if (!canShowNotification) {
+                long lastTime = lastNotificationTime.getOrDefault(workerName, 0L);
+                if (currentTime - lastTime <= NOTIFICATION_COOLDOWN) {
                     return;
                 }
+                lastNotificationTime.put(workerName, currentTime);
 
                 String bricks;
                 String message;
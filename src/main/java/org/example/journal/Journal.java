@@ -0,0 +1,238 @@
+package org.example.journal;
+
+import org.example.model.LineListener;
+import org.example.model.LineScheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dziennik zdarzen linii dopisywany do plikow mapowanych w pamieci (segmenty journal-NNNNN.bin).
+ * Kazdy zapis rezerwuje miejsce jednym getAndAdd na wspolnej pozycji i wpisuje rekord
+ * bezposrednio do mapowanego bufora - bez zamkow i bez wywolan systemowych.
+ * Po start() watek w tle co forceMillis wymusza zapis stron na dysk.
+ */
+public class Journal implements LineListener, AutoCloseable {
+    public static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+    public static final long DEFAULT_FORCE_MILLIS = 1000;
+
+    //zatwierdzenie rekordu: zapis typu z semantyka release, odczyt w czytniku z acquire
+    static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicLong position = new AtomicLong();
+    private final int slotsPerSegment;
+    //zmapowane segmenty (kopiowane przy dodaniu pod mapLock); zamki to ReentrantLock, wiec
+    //pracownik na watku wirtualnym czekajacy na zmapowanie nie blokuje nosnika
+    private volatile Segment[] segments = new Segment[0];
+    private final ReentrantLock mapLock = new ReentrantLock();
+    private volatile Segment current; //ostatnio uzyty segment - szybka sciezka
+
+    private final Map<String, Integer> actorIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextActorId = new AtomicInteger(1);
+
+    //okresowy zapis na dysk na watku I/O, nie na wspolnym planiscie (pod this)
+    private final long forceMillis;
+    private ScheduledFuture<?> flusher;
+    private volatile boolean open = true;
+    //force nie trzyma mapLock - pracownik przechodzacy do nowego segmentu nie czeka na dysk
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private int forcedSegments = 0; //segmenty juz w calosci zapisane na dysk (pod forceLock)
+
+    //released - rekordy dopisane do konca; segment jest zamkniety, gdy to wszystkie jego miejsca
+    private record Segment(int index, MappedByteBuffer buffer, LongAdder released) { }
+
+    public Journal(Path dir) {
+        this(dir, DEFAULT_SEGMENT_BYTES, DEFAULT_FORCE_MILLIS);
+    }
+
+    public Journal(Path dir, int segmentBytes, long forceMillis) {
+        if (segmentBytes <= 0 || segmentBytes % JournalRecord.SIZE != 0) {
+            throw new IllegalArgumentException("Rozmiar segmentu musi byc wielokrotnoscia " + JournalRecord.SIZE);
+        }
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.slotsPerSegment = segmentBytes / JournalRecord.SIZE;
+        this.forceMillis = forceMillis;
+        try {
+            Files.createDirectories(dir);
+            if (JournalReader.segmentFiles(dir).length > 0) {
+                throw new IllegalStateException("Katalog " + dir + " zawiera juz dziennik");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long wall = System.currentTimeMillis();
+        append(JournalRecord.START, 0, (int) (wall >>> 32), (int) wall, 0, 0);
+    }
+
+    //wlacza okresowy zapis na dysk; bez tego strony trafiaja na dysk dopiero przy close()
+    public synchronized void start() {
+        if (flusher == null && open) {
+            flusher = LineScheduler.io().scheduleWithFixedDelay(this::force, forceMillis, forceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public Path getDir() { return dir; }
+
+    //liczba zarezerwowanych rekordow (lacznie z naglowkiem i nazwami)
+    public long getRecords() { return position.get() / JournalRecord.SIZE; }
+
+    @Override
+    public void brickAdded(String worker, int mass) {
+        append(JournalRecord.BRICK_ADDED, actorId(worker), mass, 0, 0, 0);
+    }
+
+    @Override
+    public void beltFull() {
+        append(JournalRecord.BELT_FULL, 0, 0, 0, 0, 0);
+    }
+
+    @Override
+    public void truckDocked(String truck, int actual, int size) {
+        append(JournalRecord.TRUCK_DOCKED, actorId(truck), actual, size, 0, 0);
+    }
+
+    @Override
+    public void truckLoaded(String truck, int bricks, int mass) {
+        append(JournalRecord.TRUCK_LOADED, actorId(truck), bricks, mass, 0, 0);
+    }
+
+    @Override
+    public void truckDeparted(String truck) {
+        append(JournalRecord.TRUCK_DEPARTED, actorId(truck), 0, 0, 0, 0);
+    }
+
+    @Override
+    public void truckUnloaded(String truck, int mass) {
+        append(JournalRecord.TRUCK_UNLOADED, actorId(truck), mass, 0, 0, 0);
+    }
+
+    //nazwa dostaje id przy pierwszym uzyciu; rekordy NAME zapisuja sie w computeIfAbsent,
+    //wiec w pliku zawsze leza przed pierwszym rekordem z tym id
+    private int actorId(String name) {
+        Integer id = actorIds.get(name);
+        if (id == null) id = actorIds.computeIfAbsent(name, this::writeName);
+        return id;
+    }
+
+    private int writeName(String name) {
+        int id = nextActorId.getAndIncrement();
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        for (int off = 0; off < bytes.length || off == 0; off += 16) {
+            int[] chunk = new int[4];
+            for (int i = 0; i < 16 && off + i < bytes.length; i++) {
+                chunk[i >> 2] |= (bytes[off + i] & 0xff) << ((i & 3) * 8);
+            }
+            append(JournalRecord.NAME, id, chunk[0], chunk[1], chunk[2], chunk[3]);
+        }
+        return id;
+    }
+
+    private void append(int type, int actor, int a, int b, int c, int d) {
+        if (!open) return;
+        long pos = position.getAndAdd(JournalRecord.SIZE);
+        int index = (int) (pos / segmentBytes);
+        int off = (int) (pos % segmentBytes);
+        Segment segment = current;
+        if (segment == null || segment.index() != index) segment = segment(index);
+        MappedByteBuffer buf = segment.buffer();
+
+        buf.putLong(off + JournalRecord.TIME_OFFSET, System.nanoTime() - startNanos);
+        buf.putInt(off + JournalRecord.ACTOR_OFFSET, actor);
+        buf.putInt(off + JournalRecord.VALUES_OFFSET, a);
+        buf.putInt(off + JournalRecord.VALUES_OFFSET + 4, b);
+        buf.putInt(off + JournalRecord.VALUES_OFFSET + 8, c);
+        buf.putInt(off + JournalRecord.VALUES_OFFSET + 12, d);
+        INTS.setRelease(buf, off + JournalRecord.TYPE_OFFSET, type);
+        segment.released().increment();
+    }
+
+    //mapuje brakujace segmenty - tylko raz na segment, reszta zapisow idzie szybka sciezka
+    private Segment segment(int index) {
+        Segment[] mapped = segments;
+        if (index >= mapped.length) {
+            mapLock.lock();
+            try {
+                mapped = segments;
+                if (index >= mapped.length) {
+                    mapped = Arrays.copyOf(mapped, index + 1);
+                    for (int i = segments.length; i <= index; i++) mapped[i] = map(i);
+                    segments = mapped;
+                }
+            } finally {
+                mapLock.unlock();
+            }
+        }
+        Segment segment = mapped[index];
+        Segment last = current;
+        if (last == null || last.index() < index) current = segment;
+        return segment;
+    }
+
+    private Segment map(int index) {
+        Path file = dir.resolve(JournalReader.segmentName(index));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            return new Segment(index, buf, new LongAdder());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //wymusza zapis na dysk segmentow zmienionych od ostatniego razu
+    public void force() {
+        forceLock.lock();
+        try {
+            Segment[] mapped = segments;
+            int last = mapped.length - 1;
+            //zamkniete przed force: pozycja je minela i kazde zarezerwowane miejsce jest juz dopisane,
+            //wiec ten force obejmuje ich ostatnie rekordy i kolejne moga je pominac
+            int closed = forcedSegments;
+            while (closed < last && mapped[closed].released().sum() == slotsPerSegment) closed++;
+            for (int i = forcedSegments; i <= last; i++) {
+                mapped[i].buffer().force();
+            }
+            forcedSegments = closed;
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        open = false;
+        if (flusher != null) flusher.cancel(false);
+        forceLock.lock();
+        try {
+            for (Segment segment : segments) {
+                segment.buffer().force();
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.journal;
+
+import org.example.model.LineListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Czytnik dziennika: przechodzi segmenty po kolei i podaje rekordy w kolejnosci zapisu.
+ * Rekord niezatwierdzony (typ 0, np. po awarii w trakcie zapisu) jest pomijany,
+ * a w ostatnim segmencie konczy odczyt.
+ */
+public class JournalReader {
+    private final Path dir;
+
+    public JournalReader(Path dir) {
+        this.dir = dir;
+    }
+
+    static String segmentName(int index) {
+        return String.format("journal-%05d.bin", index);
+    }
+
+    static Path[] segmentFiles(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return new Path[0];
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().matches("journal-\\d{5}\\.bin"))
+                    .sorted()
+                    .toArray(Path[]::new);
+        }
+    }
+
+    //podaje kolejne rekordy (bez START i NAME); obiekt rekordu jest wspolny dla wszystkich wywolan
+    public long read(Consumer<JournalRecord> handler) {
+        JournalRecord record = new JournalRecord();
+        Map<Integer, byte[]> names = new HashMap<>();
+        Map<Integer, String> resolved = new HashMap<>();
+        long count = 0;
+        try {
+            Path[] files = segmentFiles(dir);
+            for (int f = 0; f < files.length; f++) {
+                boolean last = f == files.length - 1;
+                try (FileChannel channel = FileChannel.open(files[f])) {
+                    MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    buf.order(ByteOrder.LITTLE_ENDIAN);
+                    int limit = buf.capacity() - buf.capacity() % JournalRecord.SIZE;
+                    for (int off = 0; off < limit; off += JournalRecord.SIZE) {
+                        int type = (int) Journal.INTS.getAcquire(buf, off + JournalRecord.TYPE_OFFSET);
+                        if (type == 0) {
+                            if (last && isEmptyFrom(buf, off, limit)) break;
+                            continue; //dziura po przerwanym zapisie
+                        }
+                        int actor = buf.getInt(off + JournalRecord.ACTOR_OFFSET);
+                        if (type == JournalRecord.NAME) {
+                            names.merge(actor, nameChunk(buf, off), JournalReader::concat);
+                            resolved.remove(actor);
+                            continue;
+                        }
+                        record.time = buf.getLong(off + JournalRecord.TIME_OFFSET);
+                        record.type = type;
+                        record.actorId = actor;
+                        record.actor = actor == 0 ? null : resolved.computeIfAbsent(actor, id -> decode(names.get(id), id));
+                        record.a = buf.getInt(off + JournalRecord.VALUES_OFFSET);
+                        record.b = buf.getInt(off + JournalRecord.VALUES_OFFSET + 4);
+                        record.c = buf.getInt(off + JournalRecord.VALUES_OFFSET + 8);
+                        record.d = buf.getInt(off + JournalRecord.VALUES_OFFSET + 12);
+                        if (type != JournalRecord.START) {
+                            handler.accept(record);
+                            count++;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    //odtwarza zdarzenia w obserwatorze modelu (np. LineMetrics albo widok GUI)
+    public long replay(LineListener listener) {
+        return read(r -> {
+            switch (r.getType()) {
+                case JournalRecord.BRICK_ADDED -> listener.brickAdded(r.getActor(), r.getA());
+                case JournalRecord.BELT_FULL -> listener.beltFull();
+                case JournalRecord.TRUCK_DOCKED -> listener.truckDocked(r.getActor(), r.getA(), r.getB());
+                case JournalRecord.TRUCK_LOADED -> listener.truckLoaded(r.getActor(), r.getA(), r.getB());
+                case JournalRecord.TRUCK_DEPARTED -> listener.truckDeparted(r.getActor());
+                case JournalRecord.TRUCK_UNLOADED -> listener.truckUnloaded(r.getActor(), r.getA());
+                default -> { }
+            }
+        });
+    }
+
+    //czy od off do konca segmentu nie ma juz zatwierdzonych rekordow
+    private static boolean isEmptyFrom(MappedByteBuffer buf, int off, int limit) {
+        for (int o = off; o < limit; o += JournalRecord.SIZE) {
+            if (buf.getInt(o + JournalRecord.TYPE_OFFSET) != 0) return false;
+        }
+        return true;
+    }
+
+    private static byte[] nameChunk(MappedByteBuffer buf, int off) {
+        byte[] chunk = new byte[16];
+        for (int i = 0; i < 16; i++) {
+            chunk[i] = buf.get(off + JournalRecord.VALUES_OFFSET + i);
+        }
+        return chunk;
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] out = new byte[a.length + b.length];
+        System.arraycopy(a, 0, out, 0, a.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        return out;
+    }
+
+    private static String decode(byte[] bytes, int id) {
+        if (bytes == null) return "#" + id;
+        int n = bytes.length;
+        while (n > 0 && bytes[n - 1] == 0) n--;
+        return new String(bytes, 0, n, StandardCharsets.UTF_8);
+    }
+}
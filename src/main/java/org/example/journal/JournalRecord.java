@@ -0,0 +1,54 @@
+package org.example.journal;
+
+/**
+ * Jeden rekord dziennika w formacie stalej dlugosci (32 bajty, little-endian):
+ * czas w ns od startu dziennika (8), typ (4), id aktora (4) i cztery liczby a..d (4 x 4).
+ * Typ zapisywany jest na koncu - rekord z typem 0 nie zostal jeszcze zatwierdzony.
+ * Czytnik uzywa jednego obiektu dla wszystkich rekordow, wiec nie wolno go zapamietywac.
+ */
+public final class JournalRecord {
+    public static final int SIZE = 32;
+
+    static final int TIME_OFFSET = 0;
+    static final int TYPE_OFFSET = 8;
+    static final int ACTOR_OFFSET = 12;
+    static final int VALUES_OFFSET = 16;
+
+    public static final int START = 1;          //a,b = czas scienny startu w ms (starsze i mlodsze 32 bity)
+    public static final int NAME = 2;           //kolejne 16 bajtow nazwy aktora (UTF-8) w a..d
+    public static final int BRICK_ADDED = 3;    //aktor = pracownik, a = masa
+    public static final int BELT_FULL = 4;
+    public static final int TRUCK_DOCKED = 5;   //aktor = ciezarowka, a = zaladowane, b = ladownosc
+    public static final int TRUCK_LOADED = 6;   //a = liczba cegiel, b = masa partii
+    public static final int TRUCK_DEPARTED = 7;
+    public static final int TRUCK_UNLOADED = 8; //a = rozladowana masa
+
+    long time;
+    int type;
+    int actorId;
+    String actor;
+    int a, b, c, d;
+
+    public long getTime() { return time; }
+    public int getType() { return type; }
+    public int getActorId() { return actorId; }
+    public String getActor() { return actor; }
+    public int getA() { return a; }
+    public int getB() { return b; }
+    public int getC() { return c; }
+    public int getD() { return d; }
+
+    public static String typeName(int type) {
+        return switch (type) {
+            case START -> "START";
+            case NAME -> "NAME";
+            case BRICK_ADDED -> "BRICK_ADDED";
+            case BELT_FULL -> "BELT_FULL";
+            case TRUCK_DOCKED -> "TRUCK_DOCKED";
+            case TRUCK_LOADED -> "TRUCK_LOADED";
+            case TRUCK_DEPARTED -> "TRUCK_DEPARTED";
+            case TRUCK_UNLOADED -> "TRUCK_UNLOADED";
+            default -> "TYPE_" + type;
+        };
+    }
+}
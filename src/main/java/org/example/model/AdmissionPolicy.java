@@ -0,0 +1,74 @@
+package org.example.model;
+
+/**
+ * Kolejnosc przyjmowania cegiel, gdy pracownicy czekaja na miejsce na tasmie.
+ * Polityka nadaje cegle klucz (mniejszy = wczesniej) i mowi, czy czekajaca cegla,
+ * ktora sie nie miesci, zatrzymuje cegly za nia. Kolejke prowadzi AdmissionQueue.
+ */
+public enum AdmissionPolicy {
+
+    //kto pierwszy sie zmiesci (dotychczasowe zachowanie) - przy tasmie blisko limitu masy
+    //lekkie cegly ciagle wyprzedzaja ciezkie
+    BARGING {
+        @Override
+        long key(AdmissionQueue queue, long seq, String worker, int intervalMillis, long nowNanos) {
+            return seq;
+        }
+
+        @Override
+        boolean blocks(AdmissionQueue.Ticket first, long nowNanos) {
+            return false;
+        }
+    },
+
+    //scisla kolejnosc przybycia: pierwsza czekajaca cegla rezerwuje zwalniane miejsce
+    FIFO {
+        @Override
+        long key(AdmissionQueue queue, long seq, String worker, int intervalMillis, long nowNanos) {
+            return seq;
+        }
+
+        @Override
+        boolean blocks(AdmissionQueue.Ticket first, long nowNanos) {
+            return true;
+        }
+    },
+
+    //sprawiedliwe kolejkowanie wazone (SCFQ): koszt cegly to masa, a waga pracownika to jego tempo
+    //masy z konfiguracji (masa / interwal), wiec znacznik pracownika rosnie o interwal na cegle.
+    //Pod obciazeniem pracownicy dostaja miejsce w proporcji do skonfigurowanego tempa;
+    //cegla bez pracownika nigdy nie wyprzedza czekajacych (AdmissionQueue.startTag)
+    WEIGHTED_FAIR {
+        @Override
+        long key(AdmissionQueue queue, long seq, String worker, int intervalMillis, long nowNanos) {
+            return queue.startTag(worker) + Math.max(0, intervalMillis);
+        }
+
+        @Override
+        boolean blocks(AdmissionQueue.Ticket first, long nowNanos) {
+            return true;
+        }
+    },
+
+    //najwczesniejszy termin (przybycie + interwal pracownika): dopoki nikt nie jest spozniony,
+    //kazda pasujaca cegla wchodzi od razu; spozniona cegla blokuje wyprzedzanie.
+    //Interwal 0 (takze cegla bez pracownika) to termin rowny przybyciu: taka cegla wyprzedza
+    //czekajace o pozniejszym terminie, a gdy sama czeka, od razu jest spozniona i dziala jak FIFO
+    DEADLINE {
+        @Override
+        long key(AdmissionQueue queue, long seq, String worker, int intervalMillis, long nowNanos) {
+            return nowNanos + Math.max(0, intervalMillis) * 1_000_000L;
+        }
+
+        @Override
+        boolean blocks(AdmissionQueue.Ticket first, long nowNanos) {
+            return nowNanos - first.key > 0;
+        }
+    };
+
+    //klucz cegli przybylej jako seq-ta (pracownik null i interwal 0, gdy nieznane)
+    abstract long key(AdmissionQueue queue, long seq, String worker, int intervalMillis, long nowNanos);
+
+    //czy pierwsza czekajaca cegla, ktora sie nie miesci, zatrzymuje nastepne
+    abstract boolean blocks(AdmissionQueue.Ticket first, long nowNanos);
+}
@@ -0,0 +1,155 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Condition;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Cegly czekajace na miejsce na tasmie, uporzadkowane kluczem polityki (AdmissionPolicy).
+ * Zwolnione miejsce jest przekazywane czekajacym bezposrednio (admit): budzony jest
+ * tylko pracownik, ktorego cegla juz lezy na tasmie, a nie wszyscy naraz.
+ * Klasa nie jest bezpieczna watkowo - chroni ja zamek tasmy.
+ */
+final class AdmissionQueue {
+
+    //czekajaca cegla; done i stan tasmy po przyjeciu ustawia ten, kto ja przyjal
+    static final class Ticket {
+        final String worker;
+        final int mass;
+        final int intervalMillis;
+        final long arrivalNanos;
+        final long seq;
+        final Condition admitted;
+        long key;
+        boolean done;
+        int weight, limit, count;
+
+        Ticket(String worker, int mass, int intervalMillis, long arrivalNanos, long seq, long key, Condition admitted) {
+            this.worker = worker;
+            this.mass = mass;
+            this.intervalMillis = intervalMillis;
+            this.arrivalNanos = arrivalNanos;
+            this.seq = seq;
+            this.key = key;
+            this.admitted = admitted;
+        }
+    }
+
+    private static final Comparator<Ticket> ORDER =
+            Comparator.<Ticket>comparingLong(t -> t.key).thenComparingLong(t -> t.seq);
+
+    private AdmissionPolicy policy = AdmissionPolicy.BARGING;
+    private TreeSet<Ticket> waiting = new TreeSet<>(ORDER);
+    private long seq = 0;
+
+    //WEIGHTED_FAIR: czas wirtualny (znacznik ostatnio przyjetej cegly) i ostatni znacznik pracownika
+    private long virtualTime = 0;
+    private final Map<String, Long> lastTag = new HashMap<>();
+
+    AdmissionPolicy policy() { return policy; }
+    boolean isEmpty() { return waiting.isEmpty(); }
+    int size() { return waiting.size(); }
+
+    //zmiana polityki przy czekajacych: klucze liczone od nowa w kolejnosci przybycia
+    void setPolicy(AdmissionPolicy policy) {
+        if (policy == this.policy) return;
+        this.policy = policy;
+        List<Ticket> tickets = new ArrayList<>(waiting);
+        tickets.sort(Comparator.comparingLong(t -> t.seq));
+        lastTag.clear();
+        waiting = new TreeSet<>(ORDER);
+        for (Ticket t : tickets) {
+            t.key = policy.key(this, t.seq, t.worker, t.intervalMillis, t.arrivalNanos);
+            remember(t.worker, t.key);
+            waiting.add(t);
+        }
+    }
+
+    //klucz cegly, ktora wlasnie przybyla
+    long key(String worker, int intervalMillis, long nowNanos) {
+        return policy.key(this, seq, worker, intervalMillis, nowNanos);
+    }
+
+    //poczatek znacznika WEIGHTED_FAIR: pracownik nie zbiera zapasu, gdy dlugo nic nie dodawal.
+    //Cegla bez pracownika (addBrick(mass), tryAddBrick) nie ma udzialu - dostaje znacznik pierwszej
+    //czekajacej, wiec przy remisie (seq) staje za nia zamiast wyprzedzac cala kolejke
+    long startTag(String worker) {
+        if (worker == null) {
+            return waiting.isEmpty() ? virtualTime : Math.max(virtualTime, waiting.first().key);
+        }
+        Long last = lastTag.get(worker);
+        return last != null ? Math.max(virtualTime, last) : virtualTime;
+    }
+
+    //czy nowa cegla z kluczem key moze wejsc przed czekajacymi (sprawdzane, gdy sie miesci);
+    //czekajace sie nie mieszcza, bo inaczej admit juz by je przyjal
+    boolean mayPass(long key, long nowNanos) {
+        if (waiting.isEmpty()) return true;
+        Ticket first = waiting.first();
+        return key < first.key || !policy.blocks(first, nowNanos);
+    }
+
+    //nowa cegla weszla od razu
+    void passed(String worker, long key) {
+        seq++;
+        remember(worker, key);
+        advance(key);
+    }
+
+    Ticket enqueue(String worker, int mass, int intervalMillis, long nowNanos, long key, Condition admitted) {
+        Ticket ticket = new Ticket(worker, mass, intervalMillis, nowNanos, seq++, key, admitted);
+        remember(worker, key);
+        waiting.add(ticket);
+        return ticket;
+    }
+
+    //pracownik przestal czekac (przerwanie)
+    void remove(Ticket ticket) {
+        waiting.remove(ticket);
+    }
+
+    //przyjmuje czekajace cegly w kolejnosci kluczy, dopoki polityka pozwala; admitter kladzie
+    //cegle na tasmie. Zwraca true, gdy zostala cegla, ktora sie nie miesci (dla niej tasma jest pelna)
+    boolean admit(long nowNanos, IntPredicate fits, Consumer<Ticket> admitter) {
+        boolean full = false;
+        Iterator<Ticket> it = waiting.iterator();
+        while (it.hasNext()) {
+            Ticket t = it.next();
+            if (fits.test(t.mass)) {
+                it.remove();
+                advance(t.key);
+                admitter.accept(t);
+                t.done = true;
+                t.admitted.signal();
+            } else {
+                full = true;
+                if (policy.blocks(t, nowNanos)) break;
+            }
+        }
+        return full;
+    }
+
+    //czy jakas czekajaca cegla moglaby wejsc teraz (po kazdej zmianie tasmy nie powinna)
+    boolean hasAdmissible(long nowNanos, IntPredicate fits) {
+        for (Ticket t : waiting) {
+            if (fits.test(t.mass)) return true;
+            if (policy.blocks(t, nowNanos)) return false;
+        }
+        return false;
+    }
+
+    private void remember(String worker, long key) {
+        if (policy == AdmissionPolicy.WEIGHTED_FAIR && worker != null) lastTag.put(worker, key);
+    }
+
+    private void advance(long key) {
+        if (policy == AdmissionPolicy.WEIGHTED_FAIR) virtualTime = Math.max(virtualTime, key);
+    }
+}
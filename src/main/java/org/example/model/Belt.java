@@ -0,0 +1,79 @@
+package org.example.model;
+
+import java.util.List;
+
+/**
+ * Tasma miedzy pracownikami a ciezarowkami: limit liczby i masy cegiel,
+ * oczekiwanie na pelna tasme i zdejmowanie cegiel strategia ladowania.
+ * Implementacje (BeltType) roznia sie tylko sposobem synchronizacji,
+ * wiec mozna je porownywac na tych samych benchmarkach.
+ */
+public interface Belt {
+
+    long DEFAULT_TRUCK_ARRIVAL_MILLIS = 3000;
+
+    //stan tasmy do punktu kontrolnego: cegly od najstarszej i limit wynikajacy z ciezarowki
+    record State(int[] bricks, int sendWeight, int truckCapacity) { }
+
+    int getWeightMax();
+    int getCountMax();
+    //limit masy z konfiguracji (getWeightMax moze byc mniejszy przez ciezarowke)
+    int getWeightLimit();
+    boolean getisFull();
+
+    void addListener(LineListener listener);
+    void removeListener(LineListener listener);
+    void setMetrics(LineMetrics metrics);
+    void setLoadingStrategy(LoadingStrategy strategy);
+    void setReserveTruckCapacity(boolean reserve);
+    void setTruckArrivalMillis(long millis);
+    long getTruckArrivalMillis();
+    void setEventLog(EventLog log);
+
+    //laczny czas, przez ktory pelna tasma czekala na ciezarowke
+    long getStallNanos();
+
+    //czeka az cegla sie zmiesci
+    void addBrick(int mass) throws InterruptedException;
+
+    //cegla pracownika o danym tempie - z nazwy i interwalu polityka przyjec liczy udzial i termin,
+    //a metryki czas czekania pracownika
+    void addBrick(int mass, String worker, int intervalMillis) throws InterruptedException;
+
+    //kolejnosc przyjmowania cegiel czekajacych na miejsce
+    void setAdmissionPolicy(AdmissionPolicy policy);
+    AdmissionPolicy getAdmissionPolicy();
+
+    //wersja bez czekania: dodaje cegle tylko jesli od razu sie zmiesci
+    boolean tryAddBrick(int mass);
+
+    //czeka na pelna tasme i dojazd ciezarowki
+    void waitForFullBelt() throws InterruptedException;
+
+    //ciezarowka dojechala do pelnej tasmy - konczy oczekiwanie (krok waitForFullBelt bez czekania)
+    void truckArrived();
+
+    List<Integer> getBricksSnapshot();
+
+    //kopiuje cegly do bufora wywolujacego (rozmiar >= countMax), zwraca ich liczbe
+    int getBricksSnapshot(int[] buffer);
+
+    List<Integer> takeBricksForTruck(int maxLoad);
+
+    //zdejmuje cegly do bufora wywolujacego (rozmiar >= countMax), zwraca ich liczbe
+    int takeBricksForTruck(int maxLoad, int[] buffer);
+
+    //pod tasme podjezdza ciezarowka, ktora zmiesci jeszcze capacity masy
+    void dockTruck(int capacity);
+
+    //zmiana limitow w trakcie pracy
+    void resize(int newCountMax, int newWeightMax);
+
+    State captureState();
+    void restoreState(State state);
+
+    //rzuca IllegalStateException przy pierwszym naruszonym niezmienniku
+    void checkInvariants();
+
+    void reset();
+}
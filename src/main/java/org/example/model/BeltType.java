@@ -0,0 +1,48 @@
+package org.example.model;
+
+/**
+ * Implementacja tasmy wybierana w konfiguracji (beltType) albo opcja --belt=.
+ */
+public enum BeltType {
+
+    //jeden zamek i dwa sprawiedliwe semafory (dotychczasowa tasma)
+    LOCK {
+        @Override
+        public Belt create(int countMax, int weightMax) {
+            return new ConveyorBelt(countMax, weightMax);
+        }
+    },
+
+    //liczniki w jednym AtomicLong, miejsce rezerwowane jednym compareAndSet
+    CAS {
+        @Override
+        public Belt create(int countMax, int weightMax) {
+            return new CasConveyorBelt(countMax, weightMax);
+        }
+
+        //liczba i masa musza sie zmiescic w polach slowa stanu
+        @Override
+        public void checkLimits(int countMax, int weightMax) {
+            CasConveyorBelt.checkLimits(countMax, weightMax);
+        }
+
+        //bez kolejki czekajacych - tylko BARGING
+        @Override
+        public boolean supports(AdmissionPolicy policy) {
+            return policy == AdmissionPolicy.BARGING;
+        }
+    };
+
+    public abstract Belt create(int countMax, int weightMax);
+
+    //rzuca IllegalArgumentException, gdy ta implementacja nie obsluzy takich limitow
+    public void checkLimits(int countMax, int weightMax) {
+        if (countMax <= 0 || weightMax <= 0) {
+            throw new IllegalArgumentException("Limity tasmy musza byc dodatnie: " + countMax + "/" + weightMax);
+        }
+    }
+
+    public boolean supports(AdmissionPolicy policy) {
+        return true;
+    }
+}
@@ -0,0 +1,552 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tasma z licznikami w jednym slowie: liczba cegiel, ich masa i biezacy limit masy
+ * (z ciezarowka) sa spakowane w AtomicLong, a cegla rezerwuje miejsce jednym
+ * compareAndSet - bez zamka i semaforow. Bez rywalizacji addBrick to jedno CAS
+ * i wstawienie do skrzynki (IntInbox, bez alokacji). Zamki biora tylko pracownicy
+ * czekajacy na miejsce, oczekiwanie na pelna tasme i strona ciezarowki.
+ * <p>
+ * Ciezarowka przenosi cegly ze skrzynki do wlasnego bufora, z ktorego wybiera strategia
+ * ladowania. Miedzy rezerwacja a wstawieniem cegla jest juz policzona, ale jeszcze jej
+ * nie widac, stad slabszy checkInvariants. W przeciwienstwie do ConveyorBelt czekajacy
+ * pracownicy nie ida po kolei, a beltChanged po dodaniu cegly wychodzi bez zamka
+ * (obserwator moze dostac dwa stany w odwrotnej kolejnosci).
+ */
+public class CasConveyorBelt implements Belt {
+
+    //uklad slowa: liczba cegiel (16 bitow) | masa (24) | limit masy (24); liczba najwyzej 15-bitowa,
+    //zeby bit znaku zostal wolny - ujemne slowo z tryReserve znaczy "nie miesci sie"
+    private static final int COUNT_SHIFT = 48;
+    private static final int WEIGHT_SHIFT = 24;
+    private static final long MASK24 = (1L << 24) - 1;
+    public static final int MAX_COUNT = (1 << 15) - 1;
+    public static final int MAX_WEIGHT = (int) MASK24;
+
+    private final AtomicLong state = new AtomicLong();
+
+    //Maksymalne parametry tasmy (biezacy limit masy jest w slowie)
+    private volatile int countMax;
+    private volatile int weightMax1;
+
+    //zarezerwowane cegly, jeszcze nie przeniesione do bufora ciezarowki; skrzynka miesci
+    //co najmniej countMax, bo kazda cegla w niej ma rezerwacje w slowie. Wymieniana tylko
+    //przy powiekszeniu tasmy, gdy jest pusta i rezerwacje sa zamkniete (resize)
+    private volatile IntInbox inbox;
+
+    //strona ciezarowki: bufor cegiel, strategia z buforami roboczymi i limit z ciezarowki (pod takeLock)
+    private final ReentrantLock takeLock = new ReentrantLock();
+    private IntRingBuffer bricks;
+    private final LoadingScratch scratch;
+    private LoadingStrategy loadingStrategy = LoadingStrategy.FIFO;
+    private boolean reserveTruckCapacity = true;
+    private int truckCapacity = Integer.MAX_VALUE;
+    //masa zdjeta na ciezarowke stojaca przy tasmie (sendWeight z ConveyorBelt minus masa na tasmie)
+    private long takenSinceDock = 0;
+
+    //wolna sciezka: pracownicy czekajacy na miejsce i ciezarowka czekajaca na pelna tasme
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition capacityFreed = waitLock.newCondition();
+    private final Condition beltFull = waitLock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    private volatile boolean isFull = false;
+
+    //czas postoju pelnej tasmy (pod waitLock)
+    private long fullSinceNanos = 0;
+    private long stallNanos = 0;
+    private long notFullSinceNanos = System.nanoTime();
+
+    private final LineListeners listeners = new LineListeners();
+    private volatile LineMetrics metrics;
+    private volatile long truckArrivalMillis = DEFAULT_TRUCK_ARRIVAL_MILLIS;
+    private volatile EventLog log = EventLog.shared();
+
+    public CasConveyorBelt(int K, int M) {
+        checkLimits(K, M);
+        this.countMax = K;
+        this.weightMax1 = M;
+        this.bricks = new IntRingBuffer(K);
+        this.inbox = new IntInbox(K);
+        this.scratch = new LoadingScratch(K);
+        state.set(pack(0, 0, M));
+    }
+
+    static void checkLimits(int countMax, int weightMax) {
+        if (countMax <= 0 || weightMax <= 0) {
+            throw new IllegalArgumentException("Limity tasmy musza byc dodatnie: " + countMax + "/" + weightMax);
+        }
+        if (countMax > MAX_COUNT || weightMax > MAX_WEIGHT) {
+            throw new IllegalArgumentException("Tasma CAS miesci najwyzej " + MAX_COUNT + " cegiel o masie "
+                    + MAX_WEIGHT + ": " + countMax + "/" + weightMax);
+        }
+    }
+
+    private static long pack(int count, int weight, int limit) {
+        return ((long) count << COUNT_SHIFT) | ((long) weight << WEIGHT_SHIFT) | limit;
+    }
+
+    private static int count(long s) { return (int) (s >>> COUNT_SHIFT); }
+    private static int weight(long s) { return (int) ((s >>> WEIGHT_SHIFT) & MASK24); }
+    private static int limit(long s) { return (int) (s & MASK24); }
+
+    //gettery
+    @Override public int getWeightMax() { return limit(state.get()); }
+    @Override public int getCountMax() { return countMax; }
+    @Override public int getWeightLimit() { return weightMax1; }
+    @Override public boolean getisFull() { return isFull; }
+
+    @Override public void addListener(LineListener listener) { listeners.add(listener); }
+    @Override public void removeListener(LineListener listener) { listeners.remove(listener); }
+
+    @Override public void setMetrics(LineMetrics metrics) { this.metrics = metrics; }
+
+    @Override
+    public void setLoadingStrategy(LoadingStrategy strategy) {
+        takeLock.lock();
+        try {
+            this.loadingStrategy = strategy;
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    @Override
+    public void setReserveTruckCapacity(boolean reserve) {
+        takeLock.lock();
+        try {
+            this.reserveTruckCapacity = reserve;
+            update(0, 0);
+        } finally {
+            takeLock.unlock();
+        }
+        wakeWaiters();
+    }
+
+    @Override public void setTruckArrivalMillis(long millis) { this.truckArrivalMillis = millis; }
+    @Override public long getTruckArrivalMillis() { return truckArrivalMillis; }
+
+    @Override public void setEventLog(EventLog log) { this.log = log; }
+
+    @Override
+    public long getStallNanos() {
+        waitLock.lock();
+        try {
+            return stallNanos + (isFull ? System.nanoTime() - fullSinceNanos : 0);
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    //bez kolejki: czekajacy pracownicy wchodza, kto pierwszy trafi z CAS
+    @Override
+    public void setAdmissionPolicy(AdmissionPolicy policy) {
+        if (policy != AdmissionPolicy.BARGING) {
+            throw new IllegalArgumentException("Tasma CAS przyjmuje cegly tylko bez kolejki (BARGING), nie " + policy);
+        }
+    }
+
+    @Override public AdmissionPolicy getAdmissionPolicy() { return AdmissionPolicy.BARGING; }
+
+    @Override
+    public void addBrick(int mass) throws InterruptedException {
+        addBrick(mass, null, 0);
+    }
+
+    @Override
+    public void addBrick(int mass, String worker, int intervalMillis) throws InterruptedException {
+        checkMass(mass);
+        if (Thread.interrupted()) throw new InterruptedException();
+        LineMetrics stats = metrics;
+        long start = stats != null ? System.nanoTime() : 0;
+        long s = tryReserve(mass);
+        if (s < 0) s = awaitReserve(mass);
+        if (stats != null) {
+            stats.recordAdmissionWait(worker, System.nanoTime() - start);
+        }
+        admitted(mass, s, worker);
+    }
+
+    @Override
+    public boolean tryAddBrick(int mass) {
+        checkMass(mass);
+        long s = tryReserve(mass);
+        if (s < 0) {
+            markFull();
+            return false;
+        }
+        admitted(mass, s, null);
+        return true;
+    }
+
+    private void checkMass(int mass) {
+        if (mass <= 0 || mass > weightMax1) {
+            throw new IllegalArgumentException("Cegla o masie " + mass + " nie zmiesci sie na tasmie");
+        }
+    }
+
+    //rezerwacja miejsca jednym CAS; slowo po rezerwacji albo -1, gdy cegla sie nie miesci
+    private long tryReserve(int mass) {
+        int max = countMax;
+        for (;;) {
+            long s = state.get();
+            if (count(s) >= max || weight(s) + mass > limit(s)) return -1;
+            long next = s + (1L << COUNT_SHIFT) + ((long) mass << WEIGHT_SHIFT);
+            if (state.compareAndSet(s, next)) return next;
+        }
+    }
+
+    //wolna sciezka: pracownik czeka az ciezarowka zwolni miejsce. Licznik czekajacych rosnie
+    //przed ponowna proba, wiec zwolnienie miejsca po tej probie zawsze go obudzi (wakeWaiters)
+    private long awaitReserve(int mass) throws InterruptedException {
+        waitLock.lockInterruptibly();
+        waiters.incrementAndGet();
+        try {
+            long s;
+            while ((s = tryReserve(mass)) < 0) {
+                markFull(); //cegla sie nie miesci - dla tego pracownika tasma jest pelna
+                capacityFreed.await();
+            }
+            return s;
+        } finally {
+            waiters.decrementAndGet();
+            waitLock.unlock();
+        }
+    }
+
+    //miejsce zarezerwowane - cegla trafia do skrzynki (bez zamka)
+    private void admitted(int mass, long s, String worker) {
+        inbox.offer(mass);
+        int count = count(s);
+        int weight = weight(s);
+        int limit = limit(s);
+        listeners.beltChanged(count, weight, countMax, limit);
+        if (count >= countMax || weight >= limit) markFull();
+        log.log(EventLog.Event.BRICK_ADDED, worker != null ? worker : Thread.currentThread().getName(), mass, weight, limit, count);
+    }
+
+    //tasma pelna: budzi ciezarowke; gdy flaga juz stoi, to tylko odczyt volatile
+    private void markFull() {
+        if (isFull) return;
+        waitLock.lock();
+        try {
+            if (!isFull) {
+                fullSinceNanos = System.nanoTime();
+                LineMetrics stats = metrics;
+                if (stats != null) stats.recordTimeToFull(fullSinceNanos - notFullSinceNanos);
+                isFull = true;
+            }
+            beltFull.signalAll();
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    private void markFullIfNoRoom(long s) {
+        if (count(s) >= countMax || weight(s) >= limit(s)) markFull();
+    }
+
+    //po zwolnieniu miejsca w slowie; zamek tylko gdy ktos czeka
+    private void wakeWaiters() {
+        if (waiters.get() > 0) {
+            waitLock.lock();
+            try {
+                capacityFreed.signalAll();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void waitForFullBelt() throws InterruptedException {
+        waitLock.lockInterruptibly();
+        try {
+            while (!isFull) {
+                beltFull.await();
+            }
+        } finally {
+            waitLock.unlock();
+        }
+        listeners.beltFull();
+
+        //symulacja oczekiwania ciężarówki - bez trzymania zamkow
+        if (truckArrivalMillis > 0) {
+            Thread.sleep(truckArrivalMillis);
+        }
+        truckArrived();
+    }
+
+    @Override
+    public void truckArrived() {
+        waitLock.lock();
+        try {
+            if (isFull) {
+                notFullSinceNanos = System.nanoTime();
+                stallNanos += notFullSinceNanos - fullSinceNanos;
+            }
+            isFull = false;
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Integer> getBricksSnapshot() {
+        takeLock.lock();
+        try {
+            drainInbox();
+            List<Integer> snapshot = new ArrayList<>(bricks.size());
+            for (int i = 0; i < bricks.size(); i++) snapshot.add(bricks.get(i));
+            return snapshot;
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    @Override
+    public int getBricksSnapshot(int[] buffer) {
+        takeLock.lock();
+        try {
+            drainInbox();
+            return bricks.snapshot(buffer);
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Integer> takeBricksForTruck(int maxLoad) {
+        int[] buffer = new int[countMax];
+        int n = takeBricksForTruck(maxLoad, buffer);
+        List<Integer> toLoad = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) toLoad.add(buffer[i]);
+        return toLoad;
+    }
+
+    @Override
+    public int takeBricksForTruck(int maxLoad, int[] buffer) {
+        int taken;
+        takeLock.lock();
+        try {
+            drainInbox();
+            taken = loadingStrategy.take(bricks, maxLoad, scratch, buffer);
+            int total = 0;
+            for (int i = 0; i < taken; i++) {
+                total += buffer[i];
+            }
+            takenSinceDock += total;
+            long s = update(-taken, -total);
+
+            //nic sie nie zmiescilo - tasma dalej pelna, nastepna ciezarowka jej nie przegapi
+            if (taken == 0) markFullIfNoRoom(s);
+            listeners.beltChanged(count(s), weight(s), countMax, limit(s));
+        } finally {
+            takeLock.unlock();
+        }
+        wakeWaiters();
+        return taken;
+    }
+
+    @Override
+    public void dockTruck(int capacity) {
+        takeLock.lock();
+        try {
+            truckCapacity = capacity;
+            takenSinceDock = 0;
+            long s = update(0, 0);
+            listeners.beltChanged(count(s), weight(s), countMax, limit(s));
+        } finally {
+            takeLock.unlock();
+        }
+        wakeWaiters();
+    }
+
+    //zmienia liczniki i przelicza limit masy jednym CAS - pracownicy rezerwuja w tym czasie (pod takeLock)
+    private long update(int countDelta, int weightDelta) {
+        for (;;) {
+            long s = state.get();
+            int weight = weight(s) + weightDelta;
+            long next = pack(count(s) + countDelta, weight, truckLimit(weight));
+            if (state.compareAndSet(s, next)) return next;
+        }
+    }
+
+    //limit masy jak applyTruckLimit w ConveyorBelt: masa na tasmie + miejsce w ciezarowce
+    //po odjeciu tego, co juz na nia trafilo, nie wiecej niz konfiguracja (pod takeLock)
+    private int truckLimit(int weight) {
+        long limit = reserveTruckCapacity
+                ? Math.min(weightMax1, (long) truckCapacity - takenSinceDock)
+                : weightMax1;
+        return (int) Math.max(limit, weight);
+    }
+
+    //przenosi zarezerwowane cegly ze skrzynki do bufora strategii (pod takeLock)
+    private void drainInbox() {
+        int mass;
+        while ((mass = inbox.poll()) > 0) {
+            //wiecej cegiel niz pojemnosc tylko tuz po zmniejszeniu countMax w resize
+            if (bricks.isFull()) rebuffer(bricks.capacity() * 2);
+            bricks.offer(mass);
+        }
+    }
+
+    //przed zbudowaniem stanu od nowa: limit 0 w slowie zamyka nowe rezerwacje, a te juz udane
+    //(policzone w slowie, jeszcze nie w skrzynce) trafiaja do bufora, zanim zostanie wyczyszczony.
+    //Odrzuceni w tym czasie pracownicy czekaja na wakeWaiters po odbudowie stanu (pod takeLock)
+    private void quiesce() {
+        for (;;) {
+            long s = state.get();
+            if (state.compareAndSet(s, pack(count(s), weight(s), 0))) break;
+        }
+        int reserved = count(state.get());
+        drainInbox();
+        while (bricks.size() < reserved) {
+            Thread.yield();
+            drainInbox();
+        }
+    }
+
+    private void rebuffer(int capacity) {
+        IntRingBuffer resized = new IntRingBuffer(capacity);
+        while (!bricks.isEmpty()) resized.offer(bricks.poll());
+        bricks = resized;
+        scratch.resize(capacity);
+    }
+
+    //cegly ponad nowy limit zostaja na tasmie, a pracownicy czekaja az ciezarowka je zdejmie
+    @Override
+    public void resize(int newCountMax, int newWeightMax) {
+        checkLimits(newCountMax, newWeightMax);
+        takeLock.lock();
+        try {
+            if (newCountMax == countMax && newWeightMax == weightMax1) return;
+            if (newCountMax > inbox.capacity()) {
+                //rezerwacje w locie trafiaja jeszcze do starej skrzynki; limit wraca w update ponizej
+                quiesce();
+                inbox = new IntInbox(newCountMax);
+            }
+            drainInbox();
+            int capacity = Math.max(newCountMax, bricks.size());
+            if (capacity != bricks.capacity()) rebuffer(capacity);
+            countMax = newCountMax;
+            weightMax1 = newWeightMax;
+            long s = update(0, 0);
+            markFullIfNoRoom(s);
+            listeners.beltChanged(count(s), weight(s), countMax, limit(s));
+        } finally {
+            takeLock.unlock();
+        }
+        wakeWaiters();
+    }
+
+    //cegla zarezerwowana, ale jeszcze nie wstawiona do skrzynki, nie trafia do punktu kontrolnego
+    @Override
+    public State captureState() {
+        takeLock.lock();
+        try {
+            drainInbox();
+            int[] copy = new int[bricks.size()];
+            bricks.snapshot(copy);
+            int weight = 0;
+            for (int mass : copy) weight += mass;
+            return new State(copy, (int) (weight + takenSinceDock), truckCapacity);
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    //zwykle przed startem pracownikow; rezerwacje w locie i tak sa najpierw dokonczone (quiesce)
+    @Override
+    public void restoreState(State state) {
+        int[] restored = state.bricks();
+        int weight = 0;
+        for (int mass : restored) {
+            if (mass <= 0 || mass > weightMax1) {
+                throw new IllegalArgumentException("Cegla o masie " + mass + " nie zmiesci sie na tasmie");
+            }
+            weight += mass;
+        }
+        if (restored.length > countMax || weight > weightMax1) {
+            throw new IllegalArgumentException("Zawartosc punktu kontrolnego (" + restored.length + " cegiel, masa "
+                    + weight + ") przekracza limity tasmy " + countMax + "/" + weightMax1);
+        }
+        takeLock.lock();
+        try {
+            quiesce();
+            bricks.clear();
+            for (int mass : restored) bricks.offer(mass);
+            truckCapacity = state.truckCapacity();
+            takenSinceDock = state.sendWeight() - weight;
+            this.state.set(pack(restored.length, weight, truckLimit(weight)));
+            isFull = false;
+            listeners.beltChanged(restored.length, weight, countMax, getWeightMax());
+        } finally {
+            takeLock.unlock();
+        }
+        wakeWaiters();
+    }
+
+    //sprawdza spojnosc pod takeLock. Widoczne cegly moga odstawac od slowa tylko o rezerwacje
+    //w locie: kazda ma co najmniej jedna cegle i mase >= 1, a masa miesci sie w limicie
+    @Override
+    public void checkInvariants() {
+        takeLock.lock();
+        try {
+            drainInbox();
+            long s = state.get();
+            int weight = 0;
+            for (int i = 0; i < bricks.size(); i++) {
+                int mass = bricks.get(i);
+                if (mass <= 0) violation("cegla o masie " + mass + " na pozycji " + i);
+                weight += mass;
+            }
+            int pendingCount = count(s) - bricks.size();
+            int pendingWeight = weight(s) - weight;
+            if (pendingCount < 0) violation("na tasmie " + bricks.size() + " cegiel, licznik " + count(s));
+            if (pendingWeight < pendingCount || (pendingCount == 0 && pendingWeight != 0)) {
+                violation("masa cegiel " + weight + ", licznik " + weight(s) + " przy " + pendingCount + " rezerwacjach");
+            }
+            if (weight(s) > limit(s)) violation("masa " + weight(s) + " ponad limit " + limit(s));
+            if (limit(s) > Math.max(weightMax1, weight(s))) {
+                violation("limit masy " + limit(s) + " ponad konfiguracje " + weightMax1);
+            }
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    private static void violation(String message) {
+        throw new IllegalStateException("Naruszony niezmiennik tasmy: " + message);
+    }
+
+    @Override
+    public void reset() {
+        takeLock.lock();
+        try {
+            quiesce();
+            bricks.clear();
+            truckCapacity = Integer.MAX_VALUE;
+            takenSinceDock = 0;
+            state.set(pack(0, 0, truckLimit(0)));
+            waitLock.lock();
+            try {
+                isFull = false;
+                notFullSinceNanos = System.nanoTime();
+            } finally {
+                waitLock.unlock();
+            }
+            listeners.beltChanged(0, 0, countMax, getWeightMax());
+        } finally {
+            takeLock.unlock();
+        }
+        wakeWaiters();
+    }
+}
@@ -1,206 +1,526 @@
 package org.example.model;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Semaphore;
-import javafx.application.Platform;
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleBooleanProperty;
-import javafx.beans.property.BooleanProperty;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class ConveyorBelt {
+public class ConveyorBelt implements Belt {
 
-    //kolejka ktora przechowuje masy cegiel na tasmie
-    private final Queue<Integer> bricks = new LinkedList<>();
+    //kolejka ktora przechowuje masy cegiel na tasmie (bez Integer, rozmiar countMax)
+    //wymieniana tylko pod beltLock przy zmianie limitow
+    private IntRingBuffer bricks;
 
     //semafory ograniczajace mase i liczbe cegiel na tasmie
+    //zmieniane tylko pod beltLock, wiec permits + zawartosc == limity
     private Semaphore countSemaphore;
     private Semaphore weightSemaphore;
 
     //Maksymalne parametry tasmy
-    private int countMax;
-    private int weightMax;
-    private int neweightMax;
+    private volatile int countMax;
+    private volatile int weightMax;
     //pomocnicza
-    private int weightMax1;
+    private volatile int weightMax1;
 
     //biezace wartosci
     private int currentWeight = 0;
     private int currentCount = 0;
 
-    //lock do synchronizacji z ciężarówką
-    public final Object lock = new Object();
+    //jeden zamek na caly stan tasmy; ciezarowka czeka na pelna tasme (beltFull),
+    //a pracownicy na miejsce - kazdy na wlasnym warunku w kolejce przyjec
+    private final ReentrantLock beltLock = new ReentrantLock();
+    private final Condition beltFull = beltLock.newCondition();
 
-    //flaga widoczna miedzy watkiami
+    //kolejnosc przyjmowania czekajacych cegiel (pod beltLock)
+    private final AdmissionQueue admission = new AdmissionQueue();
+
+    //flaga widoczna miedzy watkami
     private volatile boolean isFull = false;
 
-    //suma masy cegiel wyslanych na ciezarowke
+    //suma masy cegiel wyslanych na ciezarowke stojaca przy tasmie
     private int sendWeight = 0;
-    private final IntegerProperty weightMaxProperty = new SimpleIntegerProperty(weightMax);
-    private final IntegerProperty countMaxProperty = new SimpleIntegerProperty(countMax);
+    //ile jeszcze zmiesci ciezarowka stojaca przy tasmie (brak ciezarowki = bez limitu)
+    private int truckCapacity = Integer.MAX_VALUE;
+    //czy limit masy tasmy pilnuje miejsca w ciezarowce; bez tego tasma wypelnia sie do swoich
+    //limitow, a cegly na ciezarowke wybiera strategia ladowania
+    private boolean reserveTruckCapacity = true;
 
-    //gettery i setter
-    public IntegerProperty weightMaxProperty() { return weightMaxProperty; }
-    public int getWeightMax() { return weightMaxProperty.get(); }
-    public void setWeightMax(int value) { weightMaxProperty.set(value); }
+    //wybor cegiel zdejmowanych na ciezarowke i bufory robocze strategii (pod beltLock)
+    private LoadingStrategy loadingStrategy = LoadingStrategy.FIFO;
+    private final LoadingScratch scratch;
 
-    private final BooleanProperty informationProperty = new SimpleBooleanProperty(false);
+    //laczny czas, przez ktory pelna tasma czekala na zdjecie cegiel
+    private long fullSinceNanos = 0;
+    private long stallNanos = 0;
+    //od kiedy tasma znow przyjmuje cegly (do pomiaru czasu zapelnienia)
+    private long notFullSinceNanos = System.nanoTime();
 
-    public BooleanProperty informationProperty() {
-        return informationProperty;
-    }
-    public void setInformation(boolean value) { informationProperty.set(value); }
+    //obserwatorzy stanu tasmy (np. GUI), w trybie bez GUI lista jest pusta
+    private final LineListeners listeners = new LineListeners();
 
-    public IntegerProperty countMaxProperty() {return countMaxProperty;}
-    public int getCountMax() { return countMaxProperty.get(); }
-    public void setCountMax(int value) { countMaxProperty.set(value); }
+    //metryki linii (null w benchmarkach i symulacji)
+    private volatile LineMetrics metrics;
 
-    private final IntegerProperty brickCountProperty = new SimpleIntegerProperty(0);
-    private final IntegerProperty brickWeightProperty = new SimpleIntegerProperty(0);
+    //czas dojazdu ciezarowki do pelnej tasmy (0 w benchmarkach)
+    private volatile long truckArrivalMillis = DEFAULT_TRUCK_ARRIVAL_MILLIS;
 
-    public IntegerProperty brickCountProperty() { return brickCountProperty; }
-    public IntegerProperty brickWeightProperty() { return brickWeightProperty; }
+    //dziennik zdarzen - zapis poza zamkiem, wypisuje watek w tle
+    private volatile EventLog log = EventLog.shared();
+
+    //gettery
+    public int getWeightMax() { return weightMax; }
+    public int getCountMax() { return countMax; }
+    //limit masy z konfiguracji (getWeightMax moze byc mniejszy przez ciezarowke)
+    public int getWeightLimit() { return weightMax1; }
     public boolean getisFull() { return isFull; }
 
+    public void addListener(LineListener listener) { listeners.add(listener); }
+    public void removeListener(LineListener listener) { listeners.remove(listener); }
+
+    public void setMetrics(LineMetrics metrics) { this.metrics = metrics; }
+
+    public void setLoadingStrategy(LoadingStrategy strategy) {
+        beltLock.lock();
+        try {
+            this.loadingStrategy = strategy;
+        } finally {
+            beltLock.unlock();
+        }
+    }
+
+    public void setReserveTruckCapacity(boolean reserve) {
+        beltLock.lock();
+        try {
+            this.reserveTruckCapacity = reserve;
+            applyTruckLimit();
+            admitWaiting();
+        } finally {
+            beltLock.unlock();
+        }
+    }
+
+    public void setAdmissionPolicy(AdmissionPolicy policy) {
+        beltLock.lock();
+        try {
+            admission.setPolicy(policy);
+            admitWaiting();
+        } finally {
+            beltLock.unlock();
+        }
+    }
+
+    public AdmissionPolicy getAdmissionPolicy() {
+        beltLock.lock();
+        try {
+            return admission.policy();
+        } finally {
+            beltLock.unlock();
+        }
+    }
+
+    public void setTruckArrivalMillis(long millis) { this.truckArrivalMillis = millis; }
+    public long getTruckArrivalMillis() { return truckArrivalMillis; }
+
+    public void setEventLog(EventLog log) { this.log = log; }
+
+    public long getStallNanos() {
+        beltLock.lock();
+        try {
+            return stallNanos + (isFull ? System.nanoTime() - fullSinceNanos : 0);
+        } finally {
+            beltLock.unlock();
+        }
+    }
+
 
     //tasma ma dwa parametry
     public ConveyorBelt(int K, int M) {
         this.countMax = K;
         this.weightMax = M;
         this.weightMax1 = M; // zapamiętaj do resetu
+        this.bricks = new IntRingBuffer(K);
+        this.scratch = new LoadingScratch(K);
         this.countSemaphore = new Semaphore(K, true); //semafor liczby cegieł (fair)
         this.weightSemaphore = new Semaphore(M, true); //semafor masy (fair)
     }
 
     public void addBrick(int mass) throws InterruptedException {
-        while (true) {
-            synchronized (this) {
-                //sprawdzam czy jest miejsce dla cegly
-                if (countSemaphore.availablePermits() > 0 && weightSemaphore.availablePermits() >= mass && currentWeight + mass <= weightMax) {
-                    countSemaphore.acquire();
-                    weightSemaphore.acquire(mass);
-
-                    // teraz nikt nie moze wejsc w ta sekcje
-                    bricks.add(mass);
-                    currentWeight += mass;
-                    sendWeight += mass;
-                    currentCount++;
-
-                    Platform.runLater(() -> {
-                        brickCountProperty.set(currentCount);
-                        brickWeightProperty.set(currentWeight);
-                        countMaxProperty.set(countMax);
-                        weightMaxProperty.set(weightMax);
-                    });
-
-                    System.out.println("Dodano cegle " + currentWeight + "/" + weightMax + " +" + mass + " (" + currentCount + ")");
-                    System.out.println("semafor wagi " + weightSemaphore.availablePermits());
-                    System.out.println("semafor liczby " + countSemaphore.availablePermits());
-                    //jesli juz nie ma wiecej miejsca informuje o tym
-                    if (countSemaphore.availablePermits() == 0 || weightSemaphore.availablePermits() == 0) {
-                        synchronized (lock) {
-                            isFull = true;
-                            lock.notifyAll();
-                        }
-                    }
-                    break; //cegła została dodana, wyjdź z pętli
-                }
+        addBrick(mass, null, 0);
+    }
+
+    public void addBrick(int mass, String worker, int intervalMillis) throws InterruptedException {
+        checkMass(mass);
+        long start = System.nanoTime();
+        int weight, limit, count;
+
+        beltLock.lockInterruptibly();
+        try {
+            long key = admission.key(worker, intervalMillis, start);
+            if (fits(mass) && admission.mayPass(key, start)) {
+                admission.passed(worker, key);
+                admit(mass);
+                weight = currentWeight;
+                limit = weightMax;
+                count = currentCount;
+            } else {
+                if (!fits(mass)) markFull(); //cegla sie nie miesci - dla tego pracownika tasma jest pelna
+                //czekam w kolejce az zwolnione miejsce dostane od takeBricksForTruck, dockTruck albo reset
+                AdmissionQueue.Ticket ticket = admission.enqueue(worker, mass, intervalMillis, start, key, beltLock.newCondition());
+                awaitAdmission(ticket);
+                weight = ticket.weight;
+                limit = ticket.limit;
+                count = ticket.count;
             }
-            Thread.sleep(50); //jesli sie nie udalo
+        } finally {
+            beltLock.unlock();
+        }
+        LineMetrics stats = metrics;
+        if (stats != null) {
+            stats.recordAdmissionWait(worker, System.nanoTime() - start);
+        }
+        log.log(EventLog.Event.BRICK_ADDED, worker != null ? worker : Thread.currentThread().getName(), mass, weight, limit, count);
+    }
+
+    //czekanie na przyjecie cegly z kolejki (pod beltLock); przerwany pracownik wychodzi z kolejki,
+    //chyba ze jego cegla juz lezy na tasmie - wtedy konczy normalnie z ustawionym przerwaniem
+    private void awaitAdmission(AdmissionQueue.Ticket ticket) throws InterruptedException {
+        try {
+            while (!ticket.done) {
+                ticket.admitted.await();
+            }
+        } catch (InterruptedException e) {
+            if (ticket.done) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            admission.remove(ticket);
+            admitWaiting(); //usunieta cegla mogla zatrzymywac nastepne
+            throw e;
+        }
+    }
+
+    //przekazuje wolne miejsce czekajacym w kolejnosci polityki (wywolywane pod beltLock po kazdym zwolnieniu miejsca)
+    private void admitWaiting() {
+        if (admission.isEmpty()) return;
+        boolean full = admission.admit(System.nanoTime(), this::fits, ticket -> {
+            admit(ticket.mass);
+            ticket.weight = currentWeight;
+            ticket.limit = weightMax;
+            ticket.count = currentCount;
+        });
+        if (full) markFull();
+    }
+
+    //wersja bez czekania: dodaje cegle tylko jesli od razu sie zmiesci i polityka przyjec
+    //nie kaze jej stanac za czekajacymi
+    public boolean tryAddBrick(int mass) {
+        checkMass(mass);
+        int weight, limit, count;
+        beltLock.lock();
+        try {
+            if (!fits(mass)) {
+                markFull();
+                return false;
+            }
+            long now = System.nanoTime();
+            long key = admission.key(null, 0, now);
+            if (!admission.mayPass(key, now)) return false;
+            admission.passed(null, key);
+            admit(mass);
+            weight = currentWeight;
+            limit = weightMax;
+            count = currentCount;
+        } finally {
+            beltLock.unlock();
+        }
+        log.log(EventLog.Event.BRICK_ADDED, Thread.currentThread().getName(), mass, weight, limit, count);
+        return true;
+    }
+
+    private void checkMass(int mass) {
+        if (mass <= 0 || mass > weightMax1) {
+            throw new IllegalArgumentException("Cegla o masie " + mass + " nie zmiesci sie na tasmie");
+        }
+    }
+
+    //kladzie cegle na tasmie, gdy fits(mass) juz sprawdzone (wywolywane pod beltLock)
+    private void admit(int mass) {
+        //pod zamkiem pozwolenia sa dostepne, wiec tryAcquire nie zawiedzie
+        countSemaphore.tryAcquire();
+        weightSemaphore.tryAcquire(mass);
+
+        bricks.offer(mass);
+        currentWeight += mass;
+        sendWeight += mass;
+        currentCount++;
+
+        listeners.beltChanged(currentCount, currentWeight, countMax, weightMax);
+        markFullIfNoRoom();
+    }
+
+    //jesli juz nie ma wiecej miejsca informuje o tym (wywolywane pod beltLock)
+    private void markFullIfNoRoom() {
+        if (countSemaphore.availablePermits() == 0 || weightSemaphore.availablePermits() == 0) {
+            markFull();
+        }
+    }
+
+    //tasma pelna: zabraklo pozwolen albo czekajaca cegla sie nie miesci (wywolywane pod beltLock)
+    private void markFull() {
+        if (!isFull) {
+            fullSinceNanos = System.nanoTime();
+            LineMetrics stats = metrics;
+            if (stats != null) stats.recordTimeToFull(fullSinceNanos - notFullSinceNanos);
+            isFull = true;
         }
+        beltFull.signalAll();
+    }
+
+    //czy cegla o danej masie zmiesci sie teraz na tasmie (wywolywane pod beltLock)
+    private boolean fits(int mass) {
+        return countSemaphore.availablePermits() > 0 && weightSemaphore.availablePermits() >= mass && currentWeight + mass <= weightMax;
     }
 
     public void waitForFullBelt() throws InterruptedException {
-        synchronized (lock) {
+        beltLock.lockInterruptibly();
+        try {
             while (!isFull) {
-                lock.wait(); // czekaj, aż taśma się zapełni
+                beltFull.await(); // czekaj, aż taśma się zapełni
             }
-            Platform.runLater(() -> {
-                informationProperty.set(true);  // Trigger animacji
-                new java.util.Timer().schedule(
-                        new java.util.TimerTask() {
-                            @Override
-                            public void run() {
-                                Platform.runLater(() -> informationProperty.set(false));
-                            }
-                        },
-                        1000  // Wyłącz informację po 4 sekundach
-                );
-            });
-            Thread.sleep(3000);
-            //symulacja oczekiwania ciężarówki przed rozładunkiem
-            isFull = false;//reset flagi po rozpoczęciu rozładunku
+        } finally {
+            beltLock.unlock();
+        }
+        listeners.beltFull(); // trigger animacji
 
-            //jeśli taśma jest wystarczająco mała
-                if (currentCount == countMax) { //zapełniła się przez liczbę cegieł
-                    int weightToRelease = currentWeight;
-                    if (weightToRelease > 0 ) {
-                        weightSemaphore.release(weightToRelease);
-                    }
-                    int countToRelease = countMax;
-                    if (countToRelease > 0) {
-                        countSemaphore.release(countToRelease);
-                    }
-                } else if (currentWeight == weightMax) { //zapełniła się przez masę
-                    int weightToRelease = weightMax;
-                    if (weightToRelease > 0) {
-                        weightSemaphore.release(weightToRelease);
-                    }
-                    int countToRelease = currentCount;
-                    if (countToRelease > 0) {
-                        countSemaphore.release(countToRelease);
-                    }
-                }
-                //tutaj modyfikuje maksymalne parametry tasmy ze wzgledu na ciezarowke
-            if (Truck.getSize() - sendWeight < weightMax) {
-                neweightMax = Truck.getSize() - sendWeight;
-                if(weightSemaphore.availablePermits() != 0) {
-                    weightSemaphore.acquire(weightSemaphore.availablePermits()-neweightMax);
-                }
-                weightMax = neweightMax;
+        //symulacja oczekiwania ciężarówki - bez trzymania zamka tasmy
+        if (truckArrivalMillis > 0) {
+            Thread.sleep(truckArrivalMillis);
+        }
+        truckArrived();
+    }
 
+    //ciezarowka dojechala do pelnej tasmy - konczy oczekiwanie (krok waitForFullBelt bez czekania)
+    public void truckArrived() {
+        beltLock.lock();
+        try {
+            if (isFull) {
+                notFullSinceNanos = System.nanoTime();
+                stallNanos += notFullSinceNanos - fullSinceNanos;
             }
-            currentCount = 0;
-            lock.notifyAll(); //informuje ciezarowke
+            isFull = false;//reset flagi po rozpoczęciu rozładunku
+        } finally {
+            beltLock.unlock();
         }
     }
 
     //zwracam kopie listy ceigeil
-    public synchronized List<Integer> getBricksSnapshot() {
-        return new ArrayList<>(bricks);
-    }
-
-    public synchronized List<Integer> takeBricksForTruck(int maxLoad) {
-        List<Integer> toLoad = new ArrayList<>();
-        int total = 0;
-        Iterator<Integer> iterator = bricks.iterator();
-
-        //Zdejmuj cegły z taśmy, aż osiągniesz maxLoad
-        while (iterator.hasNext()) {
-            int brick = iterator.next();
-            if (total + brick <= maxLoad) {
-                toLoad.add(brick);
-                total += brick;
-                iterator.remove();
-            } else {
-                break;
-            }
+    public List<Integer> getBricksSnapshot() {
+        int[] buffer = new int[countMax];
+        int n = getBricksSnapshot(buffer);
+        List<Integer> snapshot = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) snapshot.add(buffer[i]);
+        return snapshot;
+    }
+
+    //kopiuje cegly do bufora wywolujacego (rozmiar >= countMax), zwraca ich liczbe
+    public int getBricksSnapshot(int[] buffer) {
+        beltLock.lock();
+        try {
+            return bricks.snapshot(buffer);
+        } finally {
+            beltLock.unlock();
         }
-        //aktualizuj bieżącą masę taśmy
-        currentWeight -= total;
-        //aktualizuj UI na wątku JavaFX
-        Platform.runLater(() -> {
-            brickCountProperty.set(currentCount);
-            brickWeightProperty.set(currentWeight);
-            countMaxProperty.set(countMax);
-            weightMaxProperty.set(weightMax);
-        });
+    }
 
+    public List<Integer> takeBricksForTruck(int maxLoad) {
+        int[] buffer = new int[countMax];
+        int n = takeBricksForTruck(maxLoad, buffer);
+        List<Integer> toLoad = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) toLoad.add(buffer[i]);
         return toLoad;
     }
 
+    //zdejmuje cegly do bufora wywolujacego (rozmiar >= countMax), zwraca ich liczbe
+    public int takeBricksForTruck(int maxLoad, int[] buffer) {
+        int taken = 0;
+        beltLock.lock();
+        try {
+            //strategia wybiera cegly o lacznej masie <= maxLoad, reszta zostaje w kolejnosci
+            taken = loadingStrategy.take(bricks, maxLoad, scratch, buffer);
+            int total = 0;
+            for (int i = 0; i < taken; i++) {
+                total += buffer[i];
+            }
+            //aktualizuj bieżący stan taśmy i oddaj dokładnie tyle pozwoleń ile zdjęto
+            currentWeight -= total;
+            currentCount -= taken;
+            countSemaphore.release(taken);
+            weightSemaphore.release(total);
+
+            //tutaj modyfikuje maksymalne parametry tasmy ze wzgledu na ciezarowke
+            applyTruckLimit();
+            admitWaiting();
+
+            //nic sie nie zmiescilo - tasma dalej pelna, nastepna ciezarowka jej nie przegapi
+            if (taken == 0) markFullIfNoRoom();
+
+            //powiadom obserwatorow
+            listeners.beltChanged(currentCount, currentWeight, countMax, weightMax);
+        } finally {
+            beltLock.unlock();
+        }
+        return taken;
+    }
+
+    //pod tasme podjezdza ciezarowka, ktora zmiesci jeszcze capacity masy;
+    //cegly lezace juz na tasmie pojada tą ciezarowka
+    public void dockTruck(int capacity) {
+        beltLock.lock();
+        try {
+            truckCapacity = capacity;
+            sendWeight = currentWeight;
+            applyTruckLimit();
+            admitWaiting();
+            listeners.beltChanged(currentCount, currentWeight, countMax, weightMax);
+        } finally {
+            beltLock.unlock();
+        }
+    }
+
+    //na tasme moze trafic co najwyzej tyle, ile jeszcze zmiesci ciezarowka (wywolywane pod beltLock)
+    private void applyTruckLimit() {
+        long limit = reserveTruckCapacity
+                ? Math.min(weightMax1, (long) currentWeight + truckCapacity - sendWeight)
+                : weightMax1;
+        weightMax = (int) Math.max(limit, currentWeight);
+        int target = weightMax - currentWeight;
+        int available = weightSemaphore.availablePermits();
+        if (available > target) {
+            weightSemaphore.tryAcquire(available - target);
+        } else if (available < target) {
+            weightSemaphore.release(target - available);
+        }
+    }
+
+    //zmiana limitow w trakcie pracy: bufor i pozwolenia przeliczane pod zamkiem od biezacej zawartosci;
+    //cegly ponad nowy limit zostaja na tasmie, a pracownicy czekaja az ciezarowka je zdejmie
+    public void resize(int newCountMax, int newWeightMax) {
+        if (newCountMax <= 0 || newWeightMax <= 0) {
+            throw new IllegalArgumentException("Limity tasmy musza byc dodatnie: " + newCountMax + "/" + newWeightMax);
+        }
+        beltLock.lock();
+        try {
+            if (newCountMax == countMax && newWeightMax == weightMax1) return;
+            int capacity = Math.max(newCountMax, bricks.size());
+            if (capacity != bricks.capacity()) {
+                IntRingBuffer resized = new IntRingBuffer(capacity);
+                while (!bricks.isEmpty()) resized.offer(bricks.poll());
+                bricks = resized;
+                scratch.resize(capacity);
+            }
+            countMax = newCountMax;
+            weightMax1 = newWeightMax;
+            countSemaphore.drainPermits();
+            countSemaphore.release(Math.max(0, countMax - currentCount));
+            weightSemaphore.drainPermits();
+            weightSemaphore.release(Math.max(0, weightMax1 - currentWeight));
+            applyTruckLimit();
+            admitWaiting();
+            markFullIfNoRoom();
+            listeners.beltChanged(currentCount, currentWeight, countMax, weightMax);
+        } finally {
+            beltLock.unlock();
+        }
+    }
+
+    //kopia pod zamkiem - pracownicy czekaja tylko na skopiowanie countMax liczb
+    public State captureState() {
+        beltLock.lock();
+        try {
+            int[] copy = new int[bricks.size()];
+            bricks.snapshot(copy);
+            return new State(copy, sendWeight, truckCapacity);
+        } finally {
+            beltLock.unlock();
+        }
+    }
+
+    //odtwarza stan z punktu kontrolnego w O(liczba cegiel); pozwolenia semaforow licza sie od nowa
+    public void restoreState(State state) {
+        int[] restored = state.bricks();
+        int weight = 0;
+        for (int mass : restored) {
+            if (mass <= 0 || mass > weightMax1) {
+                throw new IllegalArgumentException("Cegla o masie " + mass + " nie zmiesci sie na tasmie");
+            }
+            weight += mass;
+        }
+        if (restored.length > countMax || weight > weightMax1) {
+            throw new IllegalArgumentException("Zawartosc punktu kontrolnego (" + restored.length + " cegiel, masa "
+                    + weight + ") przekracza limity tasmy " + countMax + "/" + weightMax1);
+        }
+        beltLock.lock();
+        try {
+            bricks.clear();
+            for (int mass : restored) bricks.offer(mass);
+            currentCount = restored.length;
+            currentWeight = weight;
+            sendWeight = state.sendWeight();
+            truckCapacity = state.truckCapacity();
+            isFull = false;
+            countSemaphore.drainPermits();
+            countSemaphore.release(countMax - currentCount);
+            weightSemaphore.drainPermits();
+            weightSemaphore.release(weightMax1 - currentWeight);
+            applyTruckLimit();
+            admitWaiting();
+            listeners.beltChanged(currentCount, currentWeight, countMax, weightMax);
+        } finally {
+            beltLock.unlock();
+        }
+    }
+
+    //sprawdza spojnosc stanu pod zamkiem, wyjatek opisuje pierwsze naruszenie:
+    //zawartosc zgodna z licznikami, masa w limicie, pozwolenia + zawartosc == limity.
+    //Liczba cegiel moze przekraczac limit tylko po zmniejszeniu go w resize - wtedy bez pozwolen
+    public void checkInvariants() {
+        beltLock.lock();
+        try {
+            int weight = 0;
+            for (int i = 0; i < bricks.size(); i++) {
+                int mass = bricks.get(i);
+                if (mass <= 0) violation("cegla o masie " + mass + " na pozycji " + i);
+                weight += mass;
+            }
+            if (bricks.size() != currentCount) violation("na tasmie " + bricks.size() + " cegiel, licznik " + currentCount);
+            if (weight != currentWeight) violation("masa cegiel " + weight + ", licznik " + currentWeight);
+            if (currentWeight > weightMax) violation("masa " + currentWeight + " ponad limit " + weightMax);
+            if (weightMax > weightMax1) violation("limit masy " + weightMax + " ponad konfiguracje " + weightMax1);
+            int countPermits = countSemaphore.availablePermits();
+            if (countPermits != Math.max(0, countMax - currentCount)) {
+                violation("pozwolenia liczby " + countPermits + " + " + currentCount + " cegiel != " + countMax);
+            }
+            int weightPermits = weightSemaphore.availablePermits();
+            if (weightPermits != weightMax - currentWeight) {
+                violation("pozwolenia masy " + weightPermits + " + masa " + currentWeight + " != " + weightMax);
+            }
+            //kazde zwolnienie miejsca od razu przekazuje je kolejce przyjec
+            if (admission.hasAdmissible(System.nanoTime(), this::fits)) {
+                violation("w kolejce czeka cegla, ktora moze wejsc na tasme");
+            }
+        } finally {
+            beltLock.unlock();
+        }
+    }
+
+    private static void violation(String message) {
+        throw new IllegalStateException("Naruszony niezmiennik tasmy: " + message);
+    }
+
     public void reset() {
-        synchronized (this) {
+        beltLock.lock();
+        try {
             //zwalniam tyle pozwolen ile potrzebuje
             int countToRelease = countMax - countSemaphore.availablePermits();
             if (countToRelease > 0) countSemaphore.release(countToRelease);
@@ -208,15 +528,16 @@ public class ConveyorBelt {
             if (weightToRelease > 0) weightSemaphore.release(weightToRelease);
             currentCount = 0;
             currentWeight = 0;
-            Platform.runLater(() -> {
-                brickCountProperty.set(currentCount);
-                brickWeightProperty.set(currentWeight);
-                countMaxProperty.set(countMax);
-                weightMaxProperty.set(weightMax);
-            });
             sendWeight = 0;
+            truckCapacity = Integer.MAX_VALUE;
+            isFull = false;
+            notFullSinceNanos = System.nanoTime();
             bricks.clear();
             weightMax = weightMax1;
+            admitWaiting();
+            listeners.beltChanged(currentCount, currentWeight, countMax, weightMax);
+        } finally {
+            beltLock.unlock();
         }
     }
 
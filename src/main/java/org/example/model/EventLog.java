@@ -0,0 +1,231 @@
+package org.example.model;
+
+import java.io.PrintStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchroniczny dziennik zdarzen linii. Watki modelu tylko wpisuja rekord
+ * (typ, zrodlo, kilka liczb) do wstepnie zaalokowanego bufora cyklicznego
+ * bez blokad; formatowanie i wypisywanie robi osobny watek w tle.
+ * Gdy bufor jest pelny, rekord jest pomijany i liczony - producent nigdy nie czeka.
+ */
+public class EventLog {
+
+    public enum Level { DEBUG, INFO, WARN, ERROR, OFF }
+
+    public enum Event {
+        BRICK_ADDED(Level.DEBUG, "cegla"),         //a=masa, b=masa tasmy, c=limit masy, d=liczba cegiel
+        TRUCK_LOADED(Level.INFO, "zaladunek"),     //a=masa, b=pojemnosc, c=liczba cegiel
+        TRUCK_UNLOADED(Level.INFO, "rozladunek"),
+        TRUCK_STOPPED(Level.DEBUG, "zatrzymana"),
+        WORKER_STOPPED(Level.INFO, "zakonczony"),
+        DISPATCHER_STOPPED(Level.INFO, "zakonczony"),
+        ERROR(Level.ERROR, "blad");                 //detail=komunikat
+
+        final Level level;
+        final String label;
+
+        Event(Level level, String label) {
+            this.level = level;
+            this.label = label;
+        }
+    }
+
+    private static final int DEFAULT_CAPACITY = 1 << 13;
+    private static final EventLog DISABLED = new EventLog(null, Level.OFF, 1);
+
+    //wspolny dziennik na stdout, tworzony przy pierwszym uzyciu
+    private static final class Shared {
+        static final EventLog INSTANCE = new EventLog(System.out, Level.DEBUG, DEFAULT_CAPACITY);
+    }
+
+    public static EventLog shared() { return Shared.INSTANCE; }
+    public static EventLog disabled() { return DISABLED; }
+
+    private volatile Level level;
+    //co ktory rekord danego typu zapisywac (1 = kazdy)
+    private final int[] sampling = new int[Event.values().length];
+
+    //bufor cykliczny wielu producentow i jednego konsumenta: numer sekwencji slotu
+    //mowi, czy slot jest wolny dla producenta (== pozycja) czy gotowy do odczytu (== pozycja + 1)
+    private final int mask;
+    private final AtomicLongArray sequence;
+    private final long[] times;
+    private final Event[] events;
+    private final String[] sources;
+    private final String[] details;
+    private final int[] values;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head = 0;
+    private final LongAdder dropped = new LongAdder();
+
+    private final PrintStream out;
+    private final long startNanos = System.nanoTime();
+    //pisarz spi bez limitu czasu, gdy bufor jest pusty; budzi go producent, ktory zastal idle
+    private final Thread writer;
+    private volatile boolean idle = false;
+
+    public EventLog(PrintStream out, Level level, int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.out = out;
+        this.level = level;
+        this.mask = size - 1;
+        this.sequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequence.set(i, i);
+        this.times = new long[size];
+        this.events = new Event[size];
+        this.sources = new String[size];
+        this.details = new String[size];
+        this.values = new int[size * 4];
+        for (int i = 0; i < sampling.length; i++) sampling[i] = 1;
+
+        if (out != null) {
+            writer = new Thread(this::writeLoop, "event-log-writer");
+            writer.setDaemon(true);
+            writer.start();
+        } else {
+            writer = null;
+        }
+    }
+
+    public void setLevel(Level level) { this.level = level; }
+    public Level getLevel() { return level; }
+
+    //zapisuje srednio co n-ty rekord danego typu
+    public void setSampling(Event event, int everyN) {
+        sampling[event.ordinal()] = Math.max(1, everyN);
+    }
+
+    public long getDropped() { return dropped.sum(); }
+
+    //czy rekord przejdzie przez poziom i probkowanie - pozwala ominac zbieranie danych
+    public boolean isEnabled(Event event) {
+        if (out == null || event.level.ordinal() < level.ordinal()) return false;
+        int n = sampling[event.ordinal()];
+        return n == 1 || ThreadLocalRandom.current().nextInt(n) == 0;
+    }
+
+    public void log(Event event, String source, int a, int b, int c, int d) {
+        if (isEnabled(event)) offer(event, source, null, a, b, c, d);
+    }
+
+    public void log(Event event, String source, int a, int b, int c) {
+        log(event, source, a, b, c, 0);
+    }
+
+    public void log(Event event, String source) {
+        log(event, source, 0, 0, 0, 0);
+    }
+
+    public void error(String source, String message) {
+        if (isEnabled(Event.ERROR)) offer(Event.ERROR, source, message, 0, 0, 0, 0);
+    }
+
+    private void offer(Event event, String source, String detail, int a, int b, int c, int d) {
+        long pos = tail.get();
+        int idx;
+        while (true) {
+            idx = (int) (pos & mask);
+            long diff = sequence.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+                pos = tail.get();
+            } else if (diff < 0) {
+                dropped.increment(); //bufor pelny - nie czekamy na pisarza
+                return;
+            } else {
+                pos = tail.get();
+            }
+        }
+        times[idx] = System.nanoTime();
+        events[idx] = event;
+        sources[idx] = source;
+        details[idx] = detail;
+        int v = idx * 4;
+        values[v] = a;
+        values[v + 1] = b;
+        values[v + 2] = c;
+        values[v + 3] = d;
+        //zapis ulotny, a potem odczyt idle: pisarz ustawia idle przed ostatnim sprawdzeniem bufora,
+        //wiec albo on zobaczy ten rekord, albo my zobaczymy, ze spi
+        sequence.set(idx, pos + 1);
+        if (idle) {
+            idle = false;
+            LockSupport.unpark(writer);
+        }
+    }
+
+    //czeka (najwyzej sekunde), az pisarz wypisze wszystko co wpisano do tej chwili
+    public void flush() {
+        if (out == null) return;
+        long target = tail.get();
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        while (head < target && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(100_000);
+        }
+        out.flush();
+    }
+
+    private void writeLoop() {
+        StringBuilder line = new StringBuilder(128);
+        long reportedDrops = 0;
+        boolean written = false;
+        while (true) {
+            long pos = head;
+            int idx = (int) (pos & mask);
+            if (sequence.get(idx) != pos + 1) {
+                //koniec partii: pominiete rekordy i flush tylko po faktycznym zapisie
+                if (written) {
+                    long drops = dropped.sum();
+                    if (drops != reportedDrops) {
+                        out.println("[dziennik] pominieto " + (drops - reportedDrops) + " rekordow");
+                        reportedDrops = drops;
+                    }
+                    out.flush();
+                    written = false;
+                }
+                idle = true;
+                if (sequence.get(idx) != pos + 1) {
+                    LockSupport.park();
+                }
+                idle = false;
+                continue;
+            }
+            line.setLength(0);
+            format(line, idx);
+            events[idx] = null;
+            sources[idx] = null;
+            details[idx] = null;
+            sequence.lazySet(idx, pos + mask + 1);
+            head = pos + 1;
+            out.append(line);
+            written = true;
+        }
+    }
+
+    //zwarty format tekstowy: czas od startu [s], poziom, zrodlo, zdarzenie, liczby
+    private void format(StringBuilder sb, int idx) {
+        Event event = events[idx];
+        long micros = (times[idx] - startNanos) / 1000;
+        sb.append(micros / 1_000_000).append('.');
+        long frac = micros % 1_000_000;
+        for (long p = 100_000; p > 1 && frac < p; p /= 10) sb.append('0');
+        sb.append(frac).append(' ').append(event.level.name().charAt(0)).append(' ')
+                .append(sources[idx]).append(' ').append(event.label);
+        int v = idx * 4;
+        switch (event) {
+            case BRICK_ADDED -> sb.append(" +").append(values[v]).append(' ')
+                    .append(values[v + 1]).append('/').append(values[v + 2])
+                    .append(" (").append(values[v + 3]).append(')');
+            case TRUCK_LOADED -> sb.append(' ').append(values[v]).append('/').append(values[v + 1])
+                    .append(" (").append(values[v + 2]).append(" cegiel)");
+            case ERROR -> sb.append(": ").append(details[idx]);
+            default -> { }
+        }
+        sb.append('\n');
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Skrzynka liczb int wielu producentow i jednego konsumenta, bez opakowywania w Integer
+ * (ten sam uklad slotow co w EventLog). Numer sekwencji slotu mowi, czy slot jest wolny
+ * dla producenta (== pozycja), czy gotowy do odczytu (== pozycja + 1).
+ * <p>
+ * Nie gubi wartosci: wlasciciel gwarantuje, ze wartosci w skrzynce nigdy nie ma wiecej
+ * niz pojemnosc (tasma CAS rezerwuje miejsce w slowie, zanim wstawi cegle), wiec producent
+ * praktycznie nie czeka na wolny slot. Konsument (poll) dziala pod zamkiem wlasciciela.
+ */
+final class IntInbox {
+    private final int mask;
+    private final AtomicLongArray sequence;
+    private final int[] values;
+    private final AtomicLong tail = new AtomicLong();
+    private long head = 0; //tylko konsument
+
+    IntInbox(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.sequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequence.set(i, i);
+        this.values = new int[size];
+    }
+
+    int capacity() { return mask + 1; }
+
+    void offer(int value) {
+        long pos = tail.getAndIncrement();
+        int idx = (int) (pos & mask);
+        //slot zwalnia konsument po odczycie poprzedniego okrazenia
+        while (sequence.get(idx) != pos) Thread.onSpinWait();
+        values[idx] = value;
+        sequence.set(idx, pos + 1);
+    }
+
+    //nastepna gotowa wartosc albo -1, gdy nic wiecej nie widac (wartosci sa dodatnie)
+    int poll() {
+        long pos = head;
+        int idx = (int) (pos & mask);
+        if (sequence.get(idx) != pos + 1) return -1;
+        int value = values[idx];
+        sequence.lazySet(idx, pos + mask + 1);
+        head = pos + 1;
+        return value;
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.model;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Kolejka FIFO liczb int o stalej pojemnosci, bez opakowywania w Integer.
+ * Dodawanie, zdejmowanie i kopiowanie nie alokuja pamieci.
+ * Klasa nie jest bezpieczna watkowo - chroni ja zamek wlasciciela (tasmy).
+ */
+public class IntRingBuffer {
+    private final int[] items;
+    private int head = 0; //indeks najstarszego elementu
+    private int size = 0;
+
+    public IntRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Pojemnosc musi byc dodatnia: " + capacity);
+        }
+        this.items = new int[capacity];
+    }
+
+    public int capacity() { return items.length; }
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public boolean isFull() { return size == items.length; }
+
+    //dodaje na koniec, false gdy bufor jest pelny
+    public boolean offer(int value) {
+        if (size == items.length) return false;
+        items[wrap(head + size)] = value;
+        size++;
+        return true;
+    }
+
+    public int peek() {
+        if (size == 0) throw new NoSuchElementException();
+        return items[head];
+    }
+
+    public int poll() {
+        if (size == 0) throw new NoSuchElementException();
+        int value = items[head];
+        head = wrap(head + 1);
+        size--;
+        return value;
+    }
+
+    //i-ty element liczac od najstarszego
+    public int get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        return items[wrap(head + i)];
+    }
+
+    //przenosi do max elementow do dst (od dstOffset), zwraca ile przeniesiono
+    public int drainTo(int[] dst, int dstOffset, int max) {
+        int n = copyTo(dst, dstOffset, max);
+        head = wrap(head + n);
+        size -= n;
+        return n;
+    }
+
+    //kopiuje zawartosc do dst bez zdejmowania, zwraca ile skopiowano
+    public int snapshot(int[] dst) {
+        return copyTo(dst, 0, dst.length);
+    }
+
+    //przenosi do out elementy oznaczone w marked (indeksy od najstarszego),
+    //pozostale zostaja w tej samej kolejnosci; zwraca ile przeniesiono
+    public int removeMarked(boolean[] marked, int[] out) {
+        int taken = 0;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int value = items[wrap(head + i)];
+            if (marked[i]) {
+                out[taken++] = value;
+            } else {
+                items[wrap(head + kept++)] = value;
+            }
+        }
+        size = kept;
+        return taken;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private int copyTo(int[] dst, int dstOffset, int max) {
+        int n = Math.min(size, Math.min(max, dst.length - dstOffset));
+        int first = Math.min(n, items.length - head); //odcinek do konca tablicy
+        System.arraycopy(items, head, dst, dstOffset, first);
+        System.arraycopy(items, 0, dst, dstOffset + first, n - first);
+        return n;
+    }
+
+    private int wrap(int index) {
+        return index >= items.length ? index - items.length : index;
+    }
+}
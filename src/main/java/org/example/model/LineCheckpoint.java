@@ -0,0 +1,87 @@
+package org.example.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spojny punkt kontrolny linii: zawartosc tasmy z limitem od ciezarowki, ladunek
+ * kazdej ciezarowki i stan dyspozytora. Zapisywany binarnie (kilka bajtow na cegle)
+ * przez plik tymczasowy i atomowa zamiane, wiec przerwany zapis nie niszczy poprzedniego.
+ */
+public record LineCheckpoint(String line, int countMax, int weightMax, Belt.State belt,
+                             List<Truck.State> trucks, TruckDispatcher.State dispatcher) {
+
+    private static final int MAGIC = 0x4C435031; //"LCP1"
+
+    public void writeTo(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(line);
+            out.writeInt(countMax);
+            out.writeInt(weightMax);
+
+            int[] bricks = belt.bricks();
+            out.writeInt(bricks.length);
+            for (int mass : bricks) out.writeInt(mass);
+            out.writeInt(belt.sendWeight());
+            out.writeInt(belt.truckCapacity());
+
+            out.writeInt(trucks.size());
+            for (Truck.State truck : trucks) {
+                out.writeUTF(truck.name());
+                out.writeInt(truck.actual());
+                out.writeInt(truck.loadedCount());
+            }
+
+            out.writeBoolean(dispatcher.docked() != null);
+            if (dispatcher.docked() != null) out.writeUTF(dispatcher.docked());
+            out.writeLong(dispatcher.trips());
+            out.writeLong(dispatcher.deliveredMass());
+            out.writeLong(dispatcher.deliveredBricks());
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static LineCheckpoint readFrom(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Plik " + file + " nie jest punktem kontrolnym linii");
+            }
+            String line = in.readUTF();
+            int countMax = in.readInt();
+            int weightMax = in.readInt();
+
+            int[] bricks = new int[in.readInt()];
+            for (int i = 0; i < bricks.length; i++) bricks[i] = in.readInt();
+            Belt.State belt = new Belt.State(bricks, in.readInt(), in.readInt());
+
+            int truckCount = in.readInt();
+            List<Truck.State> trucks = new ArrayList<>(truckCount);
+            for (int i = 0; i < truckCount; i++) {
+                trucks.add(new Truck.State(in.readUTF(), in.readInt(), in.readInt()));
+            }
+
+            String docked = in.readBoolean() ? in.readUTF() : null;
+            TruckDispatcher.State dispatcher = new TruckDispatcher.State(docked, in.readLong(), in.readLong(), in.readLong());
+            return new LineCheckpoint(line, countMax, weightMax, belt, trucks, dispatcher);
+        }
+    }
+
+    //masa na tasmie i w ciezarowkach - do komunikatow
+    public int bricksOnBelt() { return belt.bricks().length; }
+
+    public int loadedMass() {
+        int sum = 0;
+        for (Truck.State truck : trucks) sum += truck.actual();
+        return sum;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.model;
+
+/**
+ * Obserwator stanu linii produkcyjnej niezalezny od toolkitu GUI.
+ * Metody wywolywane sa na watkach modelu (pracownicy, ciezarowka),
+ * wiec subskrybent sam decyduje jak przeniesc je np. na watek JavaFX.
+ */
+public interface LineListener {
+
+    //pracownik polozyl cegle na tasmie
+    default void brickAdded(String worker, int mass) {}
+
+    //zmienil sie stan tasmy (liczba i masa cegiel oraz limity)
+    default void beltChanged(int count, int weight, int countMax, int weightMax) {}
+
+    //tasma sie zapelnila i czeka na ciezarowke
+    default void beltFull() {}
+
+    //ciezarowka podjechala pod tasme i bedzie teraz ladowana
+    default void truckDocked(String truck, int actual, int size) {}
+
+    //zmienil sie stan ciezarowki; wywolywane z watku planisty, kolejne zmiany przed
+    //publikacja skladaja sie w jedno zdarzenie z najnowszym stanem
+    default void truckChanged(String truck, int actual, int size) {}
+
+    //na ciezarowke trafila partia cegiel o lacznej masie mass
+    default void truckLoaded(String truck, int bricks, int mass) {}
+
+    //pelna ciezarowka odjezdza do rozladunku
+    default void truckDeparted(String truck) {}
+
+    //ciezarowka rozladowala mass i jest znow pusta
+    default void truckUnloaded(String truck, int mass) {}
+}
@@ -0,0 +1,64 @@
+package org.example.model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Lista obserwatorow rozsylajaca zdarzenia do wszystkich zarejestrowanych.
+ * Gdy nikt nie slucha (tryb bez GUI) kazde zdarzenie to tylko pusta petla.
+ */
+public class LineListeners implements LineListener {
+    private final List<LineListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void add(LineListener listener) {
+        listeners.add(listener);
+    }
+
+    public void remove(LineListener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean isEmpty() {
+        return listeners.isEmpty();
+    }
+
+    @Override
+    public void brickAdded(String worker, int mass) {
+        for (LineListener l : listeners) l.brickAdded(worker, mass);
+    }
+
+    @Override
+    public void beltChanged(int count, int weight, int countMax, int weightMax) {
+        for (LineListener l : listeners) l.beltChanged(count, weight, countMax, weightMax);
+    }
+
+    @Override
+    public void beltFull() {
+        for (LineListener l : listeners) l.beltFull();
+    }
+
+    @Override
+    public void truckDocked(String truck, int actual, int size) {
+        for (LineListener l : listeners) l.truckDocked(truck, actual, size);
+    }
+
+    @Override
+    public void truckChanged(String truck, int actual, int size) {
+        for (LineListener l : listeners) l.truckChanged(truck, actual, size);
+    }
+
+    @Override
+    public void truckLoaded(String truck, int bricks, int mass) {
+        for (LineListener l : listeners) l.truckLoaded(truck, bricks, mass);
+    }
+
+    @Override
+    public void truckDeparted(String truck) {
+        for (LineListener l : listeners) l.truckDeparted(truck);
+    }
+
+    @Override
+    public void truckUnloaded(String truck, int mass) {
+        for (LineListener l : listeners) l.truckUnloaded(truck, mass);
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rejestr metryk jednej linii: liczniki pracownikow, wypelnienie tasmy,
+ * kursy ciezarowek i histogramy czasow. Zapis nie bierze zadnych blokad
+ * (LongAdder, histogram atomowy), wiec metryki moga byc zawsze wlaczone.
+ */
+public class LineMetrics implements LineListener {
+
+    //liczniki jednego pracownika i jego czas czekania na miejsce
+    public static final class WorkerStats {
+        private final LongAdder bricks = new LongAdder();
+        private final LongAdder mass = new LongAdder();
+        private final LatencyHistogram admissionWait = new LatencyHistogram();
+
+        public long getBricks() { return bricks.sum(); }
+        public long getMass() { return mass.sum(); }
+        public LatencyHistogram getAdmissionWait() { return admissionWait; }
+    }
+
+    private final Map<String, WorkerStats> workers = new ConcurrentHashMap<>();
+
+    //ostatni stan tasmy (beltChanged z ConveyorBelt przychodzi pod zamkiem tasmy, z CasConveyorBelt bez zamka)
+    private volatile int beltCount, beltWeight, beltCountMax, beltWeightMax;
+
+    //kursy i wypelnienie ciezarowek w chwili rozladunku
+    private final LongAdder trips = new LongAdder();
+    private final LongAdder tripMass = new LongAdder();
+    private final LongAdder tripCapacity = new LongAdder();
+
+    //czas czekania pracownika na miejsce, czas od zwolnienia tasmy do jej zapelnienia,
+    //czas kursu ciezarowki od podstawienia pod tasme do powrotu z rozladunku
+    private final LatencyHistogram admissionWait = new LatencyHistogram();
+    private final LatencyHistogram timeToFull = new LatencyHistogram();
+    private final LatencyHistogram truckTurnaround = new LatencyHistogram();
+
+    //rejestracja z gory, zeby na goracej sciezce byl tylko odczyt mapy
+    public void registerWorker(String name) {
+        workers.computeIfAbsent(name, n -> new WorkerStats());
+    }
+
+    @Override
+    public void brickAdded(String worker, int mass) {
+        WorkerStats stats = workers.get(worker);
+        if (stats == null) stats = workers.computeIfAbsent(worker, n -> new WorkerStats());
+        stats.bricks.increment();
+        stats.mass.add(mass);
+    }
+
+    @Override
+    public void beltChanged(int count, int weight, int countMax, int weightMax) {
+        beltCount = count;
+        beltWeight = weight;
+        beltCountMax = countMax;
+        beltWeightMax = weightMax;
+    }
+
+    //worker null, gdy cegle dodaje ktos spoza listy pracownikow (np. benchmark)
+    public void recordAdmissionWait(String worker, long nanos) {
+        admissionWait.record(nanos);
+        WorkerStats stats = worker != null ? workers.get(worker) : null;
+        if (stats != null) stats.admissionWait.record(nanos);
+    }
+    public void recordTimeToFull(long nanos) { timeToFull.record(nanos); }
+
+    //ciezarowka dojechala do rozladunku z actual/size masy
+    public void recordTrip(int actual, int size, long turnaroundNanos) {
+        trips.increment();
+        tripMass.add(actual);
+        tripCapacity.add(size);
+        truckTurnaround.record(turnaroundNanos);
+    }
+
+    public Map<String, WorkerStats> getWorkers() { return workers; }
+
+    public long getBricks() {
+        long sum = 0;
+        for (WorkerStats stats : workers.values()) sum += stats.getBricks();
+        return sum;
+    }
+
+    public long getMass() {
+        long sum = 0;
+        for (WorkerStats stats : workers.values()) sum += stats.getMass();
+        return sum;
+    }
+
+    //wypelnienie tasmy 0..1 wzgledem limitow
+    public double getCountFill() {
+        int max = beltCountMax;
+        return max == 0 ? 0 : (double) beltCount / max;
+    }
+
+    public double getWeightFill() {
+        int max = beltWeightMax;
+        return max == 0 ? 0 : (double) beltWeight / max;
+    }
+
+    public long getTrips() { return trips.sum(); }
+
+    //srednie wypelnienie ciezarowki przy rozladunku (suma actual / suma size)
+    public double getTruckFillEfficiency() {
+        long capacity = tripCapacity.sum();
+        return capacity == 0 ? 0 : (double) tripMass.sum() / capacity;
+    }
+
+    public LatencyHistogram getAdmissionWait() { return admissionWait; }
+    public LatencyHistogram getTimeToFull() { return timeToFull; }
+    public LatencyHistogram getTruckTurnaround() { return truckTurnaround; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("cegly %d (masa %d), tasma %.0f%% liczby / %.0f%% masy, kursy %d, wypelnienie ciezarowek %.1f%%%n",
+                getBricks(), getMass(), getCountFill() * 100, getWeightFill() * 100,
+                getTrips(), getTruckFillEfficiency() * 100));
+        for (Map.Entry<String, WorkerStats> entry : workers.entrySet()) {
+            LatencyHistogram wait = entry.getValue().getAdmissionWait();
+            sb.append(String.format("  %s: %d cegiel, masa %d, czekanie p50=%.3fms p99=%.3fms max=%.3fms%n", entry.getKey(),
+                    entry.getValue().getBricks(), entry.getValue().getMass(),
+                    wait.percentile(0.50) / 1e6, wait.percentile(0.99) / 1e6, wait.max() / 1e6));
+        }
+        sb.append("  czekanie na miejsce: ").append(admissionWait).append('\n');
+        sb.append("  zapelnienie tasmy:   ").append(timeToFull).append('\n');
+        sb.append("  kurs ciezarowki:     ").append(truckTurnaround);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.model;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wspolny planista zadan odroczonych i okresowych calej aplikacji: rozladunki
+ * ciezarowek i odswiezanie stanu. Stala, mala liczba watkow niezalezna od liczby
+ * linii, ciezarowek i cegiel. Zadania musza byc krotkie i nie moga blokowac -
+ * zapis na dysk (dziennik, punkty kontrolne) idzie na osobny watek io().
+ */
+public final class LineScheduler {
+
+    //tyle watkow wystarcza - zadania tylko przestawiaja stan i wracaja
+    private static final int THREADS = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors()));
+
+    private static final class Shared {
+        static final ScheduledExecutorService INSTANCE = create(THREADS, "line-scheduler-");
+    }
+
+    //jeden watek na blokujace I/O - kolejne zapisy i tak czekaja na ten sam dysk
+    private static final class Io {
+        static final ScheduledExecutorService INSTANCE = create(1, "line-io-");
+    }
+
+    private LineScheduler() { }
+
+    public static ScheduledExecutorService shared() { return Shared.INSTANCE; }
+
+    //zadania okresowe, ktore czekaja na dysk (force segmentow, zapis punktow kontrolnych)
+    public static ScheduledExecutorService io() { return Io.INSTANCE; }
+
+    //watki demony, anulowane zadania od razu znikaja z kolejki
+    private static ScheduledExecutorService create(int threads, String prefix) {
+        AtomicInteger next = new AtomicInteger(1);
+        ThreadFactory factory = task -> {
+            Thread thread = new Thread(task, prefix + next.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, factory);
+        executor.setRemoveOnCancelPolicy(true);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return executor;
+    }
+}
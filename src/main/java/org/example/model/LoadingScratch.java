@@ -0,0 +1,38 @@
+package org.example.model;
+
+/**
+ * Bufory robocze strategii ladowania. Trzyma je wlasciciel tasmy (rozmiar z countMax)
+ * i uzywa pod jej zamkiem, wiec wybor cegiel przy kolejnych kursach nic nie alokuje.
+ * Bitset SUBSET_SUM powstaje dopiero przy pierwszym uzyciu tej strategii.
+ */
+public final class LoadingScratch {
+    private boolean[] take;
+    private int[] order;
+    private long[] reach = new long[0];
+
+    public LoadingScratch(int capacity) {
+        this.take = new boolean[capacity];
+        this.order = new int[capacity];
+    }
+
+    public int capacity() { return take.length; }
+
+    //po zmianie pojemnosci tasmy (resize); zawartosc nie jest zachowywana
+    public void resize(int capacity) {
+        if (capacity == take.length) return;
+        take = new boolean[capacity];
+        order = new int[capacity];
+    }
+
+    //oznaczenia wybranych cegiel, indeksy od najstarszej
+    boolean[] take() { return take; }
+
+    //kolejnosc cegiel dla BEST_FIT_DECREASING
+    int[] order() { return order; }
+
+    //wiersze bitsetu SUBSET_SUM; rosnie najwyzej do limitu strategii i potem jest uzywany ponownie
+    long[] reach(int length) {
+        if (reach.length < length) reach = new long[length];
+        return reach;
+    }
+}
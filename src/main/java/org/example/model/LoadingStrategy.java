@@ -0,0 +1,140 @@
+package org.example.model;
+
+import java.util.Arrays;
+
+/**
+ * Sposob wybierania cegiel z tasmy na ciezarowke, ktora zmiesci jeszcze maxLoad masy.
+ * Strategia tylko oznacza wybrane cegly (indeksy od najstarszej) - zdejmuje je tasma.
+ * Bufory robocze dostaje od tasmy (LoadingScratch), sama nic nie alokuje.
+ */
+public enum LoadingStrategy {
+
+    //od najstarszej, do pierwszej ktora sie nie zmiesci (dotychczasowe zachowanie)
+    FIFO {
+        @Override
+        void select(IntRingBuffer bricks, int maxLoad, LoadingScratch scratch) {
+            boolean[] take = scratch.take();
+            int total = 0;
+            for (int i = 0; i < bricks.size() && total + bricks.get(i) <= maxLoad; i++) {
+                take[i] = true;
+                total += bricks.get(i);
+            }
+        }
+    },
+
+    //od najstarszej, pomijajac cegly ktore sie nie mieszcza
+    FIRST_FIT {
+        @Override
+        void select(IntRingBuffer bricks, int maxLoad, LoadingScratch scratch) {
+            boolean[] take = scratch.take();
+            int total = 0;
+            for (int i = 0; i < bricks.size(); i++) {
+                if (total + bricks.get(i) <= maxLoad) {
+                    take[i] = true;
+                    total += bricks.get(i);
+                }
+            }
+        }
+    },
+
+    //od najciezszej (przy rownej masie starsza pierwsza) - dla jednej ciezarowki best fit == first fit
+    BEST_FIT_DECREASING {
+        @Override
+        void select(IntRingBuffer bricks, int maxLoad, LoadingScratch scratch) {
+            boolean[] take = scratch.take();
+            int n = bricks.size();
+            int[] order = scratch.order();
+            //sortowanie przez wstawianie - na tasmie jest kilkadziesiat cegiel
+            for (int i = 0; i < n; i++) {
+                int j = i;
+                while (j > 0 && bricks.get(order[j - 1]) < bricks.get(i)) {
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                order[j] = i;
+            }
+            int total = 0;
+            for (int k = 0; k < n; k++) {
+                int mass = bricks.get(order[k]);
+                if (total + mass <= maxLoad) {
+                    take[order[k]] = true;
+                    total += mass;
+                }
+            }
+        }
+    },
+
+    //dokladnie: podzbior o najwiekszej masie <= maxLoad (programowanie dynamiczne na bitsetach);
+    //przy remisie zostaja mlodsze cegly; dla duzej tasmy i ladownosci wraca do BEST_FIT_DECREASING
+    SUBSET_SUM {
+        private static final long MAX_BITS = 1L << 22;
+
+        @Override
+        void select(IntRingBuffer bricks, int maxLoad, LoadingScratch scratch) {
+            boolean[] take = scratch.take();
+            int n = bricks.size();
+            if (n == 0 || maxLoad <= 0) return;
+            if ((long) (n + 1) * (maxLoad + 1) > MAX_BITS) {
+                BEST_FIT_DECREASING.select(bricks, maxLoad, scratch);
+                return;
+            }
+            int words = (maxLoad >> 6) + 1;
+            //wiersz i (od i * words) - sumy osiagalne z pierwszych i cegiel; kolejne wiersze nadpisuje shiftOr
+            long[] reach = scratch.reach((n + 1) * words);
+            Arrays.fill(reach, 0, words, 0L);
+            reach[0] = 1L;
+            for (int i = 0; i < n; i++) {
+                shiftOr(reach, i * words, bricks.get(i), (i + 1) * words, words);
+                clearAbove(reach, (i + 1) * words, maxLoad);
+            }
+            int sum = maxLoad;
+            while (!get(reach, n * words, sum)) sum--;
+            //odtwarzanie od najmlodszej: cegle bierzemy tylko gdy bez niej sumy nie da sie uzyskac
+            for (int i = n - 1; i >= 0 && sum > 0; i--) {
+                if (!get(reach, i * words, sum)) {
+                    take[i] = true;
+                    sum -= bricks.get(i);
+                }
+            }
+        }
+
+        //wiersz dst = wiersz src | (wiersz src << shift)
+        private void shiftOr(long[] bits, int src, int shift, int dst, int words) {
+            int wordShift = shift >> 6;
+            int bitShift = shift & 63;
+            for (int w = words - 1; w >= 0; w--) {
+                long shifted = 0;
+                int from = w - wordShift;
+                if (from >= 0) {
+                    shifted = bits[src + from] << bitShift;
+                    if (bitShift != 0 && from > 0) shifted |= bits[src + from - 1] >>> (64 - bitShift);
+                }
+                bits[dst + w] = bits[src + w] | shifted;
+            }
+        }
+
+        private void clearAbove(long[] bits, int row, int max) {
+            int last = max >> 6;
+            int keep = (max & 63) + 1;
+            if (keep < 64) bits[row + last] &= (1L << keep) - 1;
+        }
+
+        private boolean get(long[] bits, int row, int i) {
+            return (bits[row + (i >> 6)] & (1L << (i & 63))) != 0;
+        }
+    };
+
+    //oznacza w scratch.take() cegly do zaladowania; ma ono co najmniej bricks.size() wyzerowanych pol
+    abstract void select(IntRingBuffer bricks, int maxLoad, LoadingScratch scratch);
+
+    //wybiera i zdejmuje cegly do out, zwraca ich liczbe (scratch >= bricks.size()); przy krotszym
+    //out zdejmuje tylko wybrane sposrod out.length najstarszych cegiel, reszta zostaje na tasmie
+    public int take(IntRingBuffer bricks, int maxLoad, LoadingScratch scratch, int[] out) {
+        boolean[] take = scratch.take();
+        int n = bricks.size();
+        Arrays.fill(take, 0, n, false);
+        select(bricks, maxLoad, scratch);
+        for (int i = out.length; i < n; i++) take[i] = false;
+        return bricks.removeMarked(take, out);
+    }
+}
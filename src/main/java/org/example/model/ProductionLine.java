@@ -0,0 +1,265 @@
+package org.example.model;
+
+import org.example.config.AppConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Jedna kompletna linia produkcyjna: wlasna tasma, pracownicy i flota ciezarowek.
+ * Nie ma zadnego wspoldzielonego stanu statycznego, wiec w jednej JVM
+ * moze dzialac rownolegle wiele niezaleznych linii.
+ */
+public class ProductionLine {
+    private final String name;
+    private final BeltType beltType;
+    private final Belt belt;
+    private final List<Worker> workers;
+    private final TruckDispatcher dispatcher;
+    private final LineMetrics metrics = new LineMetrics();
+    //to, co bez restartu zostaje jak przy starcie (ostatnio widziane w konfiguracji)
+    private volatile Restartable restartable;
+
+    public ProductionLine(String name, AppConfig config) {
+        this(name, config, config.getTruckCount());
+    }
+
+    public ProductionLine(String name, AppConfig config, int truckCount) {
+        this.name = name;
+        this.beltType = BeltType.valueOf(config.getBeltType());
+        beltType.checkLimits(config.getBeltCountMax(), config.getBeltWeightMax());
+        this.belt = beltType.create(config.getBeltCountMax(), config.getBeltWeightMax());
+        belt.setLoadingStrategy(LoadingStrategy.valueOf(config.getLoadingStrategy()));
+        belt.setReserveTruckCapacity(config.isReserveTruckCapacity());
+        belt.setAdmissionPolicy(admissionPolicy(beltType, config));
+
+        //jedno przejscie po liscie z konfiguracji - koszt liniowy w liczbie pracownikow
+        List<Worker> list = new ArrayList<>();
+        forEachWorker(config, (workerName, wc) -> {
+            Worker worker = new Worker(workerName, wc.getBrickMass(), wc.getInterval(), belt);
+            worker.setVariation(checkWorker(workerName, wc, config));
+            list.add(worker);
+        });
+        this.workers = Collections.unmodifiableList(list);
+        this.dispatcher = new TruckDispatcher(belt, truckCount, config.getTruckCapacity());
+        Set<String> workerNames = new LinkedHashSet<>();
+        for (Worker worker : workers) workerNames.add(worker.getName());
+        this.restartable = new Restartable(beltType.name(), truckCount, workerNames);
+        dispatcher.setName(name + "-TruckDispatcher");
+
+        //metryki sa zawsze wlaczone - zapis bez blokad
+        belt.setMetrics(metrics);
+        belt.addListener(metrics);
+        dispatcher.setMetrics(metrics);
+        for (Worker worker : workers) {
+            metrics.registerWorker(worker.getName());
+            worker.addListener(metrics);
+        }
+    }
+
+    //nazwy pracownikow z konfiguracji: domyslnie P<i>, a wpis z count > 1 daje nazwa-1, nazwa-2...
+    public static void forEachWorker(AppConfig config, BiConsumer<String, AppConfig.WorkerConfig> action) {
+        List<AppConfig.WorkerConfig> configs = config.getWorkers();
+        for (int i = 0; i < configs.size(); i++) {
+            AppConfig.WorkerConfig wc = configs.get(i);
+            String workerName = wc.getName() != null ? wc.getName() : "P" + (i + 1);
+            if (wc.getCount() <= 1) {
+                action.accept(workerName, wc);
+            } else {
+                for (int k = 1; k <= wc.getCount(); k++) {
+                    action.accept(workerName + "-" + k, wc);
+                }
+            }
+        }
+    }
+
+    //sprawdza wszystkich pracownikow z konfiguracji - te same zasady w symulacji co na linii
+    public static void checkWorkers(AppConfig config) {
+        forEachWorker(config, (workerName, wc) -> checkWorker(workerName, wc, config));
+    }
+
+    //najciezsza cegla pracownika musi sie zmiescic na tasmie i w pustej ciezarowce,
+    //inaczej ciezarowka podjezdzalaby pod tasme w kolko bez ladunku
+    private static WorkerVariation checkWorker(String workerName, AppConfig.WorkerConfig wc, AppConfig config) {
+        WorkerVariation variation = WorkerVariation.of(wc);
+        int mass = variation.maxMass(wc.getBrickMass());
+        if (mass <= 0 || mass > config.getBeltWeightMax() || mass > config.getTruckCapacity() || wc.getInterval() < 0) {
+            throw new IllegalArgumentException("Niepoprawny pracownik " + workerName + ": masa " + mass
+                    + " (tasma " + config.getBeltWeightMax() + ", ciezarowka " + config.getTruckCapacity()
+                    + "), interwal " + wc.getInterval());
+        }
+        return variation;
+    }
+
+    private static AdmissionPolicy admissionPolicy(BeltType beltType, AppConfig config) {
+        AdmissionPolicy policy = AdmissionPolicy.valueOf(config.getAdmissionPolicy());
+        if (!beltType.supports(policy)) {
+            throw new IllegalArgumentException("Tasma " + beltType + " nie obsluguje polityki przyjec " + policy);
+        }
+        return policy;
+    }
+
+    //przeladowanie konfiguracji w trakcie pracy, bez restartu watkow: limity tasmy, ladownosc
+    //ciezarowek, strategia ladowania, polityka przyjec oraz masy i czestotliwosc pracownikow (dopasowanych po nazwie).
+    //Calosc jest najpierw sprawdzana, a potem stosowana przy wstrzymanym przekazaniu tasma -> ciezarowka,
+    //wiec zla konfiguracja nie zmienia niczego. Zmiany wymagajace restartu (typ tasmy, liczba
+    //ciezarowek, dodani lub usunieci pracownicy) sa pomijane i wypisywane na stderr
+    public void applyConfig(AppConfig config) {
+        if (config.getBeltCountMax() <= 0 || config.getBeltWeightMax() <= 0 || config.getTruckCapacity() <= 0) {
+            throw new IllegalArgumentException("Limity tasmy i ladownosc musza byc dodatnie");
+        }
+        beltType.checkLimits(config.getBeltCountMax(), config.getBeltWeightMax());
+        LoadingStrategy strategy = LoadingStrategy.valueOf(config.getLoadingStrategy());
+        //implementacji tasmy nie da sie zmienic w trakcie pracy - polityka musi pasowac do obecnej
+        AdmissionPolicy policy = admissionPolicy(beltType, config);
+        Map<String, AppConfig.WorkerConfig> byName = new HashMap<>();
+        forEachWorker(config, byName::put);
+        Map<String, WorkerVariation> variations = new HashMap<>();
+        for (Map.Entry<String, AppConfig.WorkerConfig> entry : byName.entrySet()) {
+            variations.put(entry.getKey(), checkWorker(entry.getKey(), entry.getValue(), config));
+        }
+        Restartable next = Restartable.of(config);
+
+        dispatcher.withHandoffPaused(() -> {
+            belt.resize(config.getBeltCountMax(), config.getBeltWeightMax());
+            belt.setLoadingStrategy(strategy);
+            belt.setReserveTruckCapacity(config.isReserveTruckCapacity());
+            belt.setAdmissionPolicy(policy);
+            dispatcher.setTruckCapacity(config.getTruckCapacity());
+            for (Worker worker : workers) {
+                AppConfig.WorkerConfig wc = byName.get(worker.getName());
+                if (wc != null) {
+                    worker.setBrickMass(wc.getBrickMass());
+                    worker.setInterval(wc.getInterval());
+                    worker.setVariation(variations.get(worker.getName()));
+                }
+            }
+            return null;
+        });
+        List<String> restartNeeded = restartable.changes(next);
+        restartable = next;
+        if (!restartNeeded.isEmpty()) {
+            System.err.println("Linia " + name + ": zmiany wymagajace restartu pominiete: " + String.join(", ", restartNeeded));
+        }
+    }
+
+    //klucze konfiguracji, ktorych nie da sie zmienic bez odtworzenia linii - porownanie z poprzednia
+    //konfiguracja, wiec niezmieniony plik przy kolejnym przeladowaniu nie powtarza ostrzezenia
+    private record Restartable(String beltType, int truckCount, Set<String> workers) {
+        static Restartable of(AppConfig config) {
+            Set<String> workers = new LinkedHashSet<>();
+            forEachWorker(config, (workerName, wc) -> workers.add(workerName));
+            return new Restartable(config.getBeltType(), config.getTruckCount(), workers);
+        }
+
+        List<String> changes(Restartable next) {
+            List<String> keys = new ArrayList<>();
+            if (!beltType.equals(next.beltType)) keys.add("beltType (" + beltType + " -> " + next.beltType + ")");
+            if (truckCount != next.truckCount) keys.add("truckCount (" + truckCount + " -> " + next.truckCount + ")");
+            Set<String> added = new LinkedHashSet<>(next.workers);
+            added.removeAll(workers);
+            Set<String> removed = new LinkedHashSet<>(workers);
+            removed.removeAll(next.workers);
+            if (!added.isEmpty()) keys.add("workers (nowi: " + String.join(", ", added) + ")");
+            if (!removed.isEmpty()) keys.add("workers (usunieci: " + String.join(", ", removed) + ")");
+            return keys;
+        }
+    }
+
+    public String getName() { return name; }
+    public Belt getBelt() { return belt; }
+    public List<Worker> getWorkers() { return workers; }
+    public TruckDispatcher getDispatcher() { return dispatcher; }
+    public LineMetrics getMetrics() { return metrics; }
+
+    //wszystkie elementy linii pisza do jednego dziennika
+    public void setEventLog(EventLog log) {
+        belt.setEventLog(log);
+        for (Worker worker : workers) worker.setEventLog(log);
+        dispatcher.setEventLog(log);
+    }
+
+    //obserwator dostaje zdarzenia tasmy, pracownikow i ciezarowek tej linii
+    public void addListener(LineListener listener) {
+        belt.addListener(listener);
+        for (Worker worker : workers) worker.addListener(listener);
+        dispatcher.addListener(listener);
+    }
+
+    public void removeListener(LineListener listener) {
+        belt.removeListener(listener);
+        for (Worker worker : workers) worker.removeListener(listener);
+        dispatcher.removeListener(listener);
+    }
+
+    //spojny punkt kontrolny w trakcie pracy: wstrzymane jest tylko przekazanie tasma -> ciezarowka,
+    //a pracownicy czekaja jedynie na skopiowanie zawartosci tasmy
+    public LineCheckpoint checkpoint() {
+        return dispatcher.withHandoffPaused(() -> {
+            Belt.State beltState = belt.captureState();
+            List<Truck.State> trucks = new ArrayList<>(dispatcher.getFleet().size());
+            for (Truck truck : dispatcher.getFleet()) trucks.add(truck.captureState());
+            return new LineCheckpoint(name, belt.getCountMax(), belt.getWeightLimit(), beltState, trucks, dispatcher.captureState());
+        });
+    }
+
+    //przed start(): linia wznawia prace od punktu kontrolnego (takze w polowie ladowania ciezarowki).
+    //Ciezarowki sa dopasowane po nazwie; inna linia albo inna flota niczego nie zmienia
+    public void restore(LineCheckpoint checkpoint) {
+        if (!name.equals(checkpoint.line())) {
+            throw new IllegalArgumentException("Punkt kontrolny linii " + checkpoint.line() + " nie pasuje do linii " + name);
+        }
+        if (checkpoint.countMax() != belt.getCountMax() || checkpoint.weightMax() != belt.getWeightLimit()) {
+            throw new IllegalArgumentException("Punkt kontrolny tasmy " + checkpoint.countMax() + "/" + checkpoint.weightMax()
+                    + " nie pasuje do konfiguracji " + belt.getCountMax() + "/" + belt.getWeightLimit());
+        }
+        List<Truck> fleet = dispatcher.getFleet();
+        if (checkpoint.trucks().size() != fleet.size()) {
+            throw new IllegalArgumentException("Punkt kontrolny ma " + checkpoint.trucks().size()
+                    + " ciezarowek, a flota " + fleet.size());
+        }
+        Map<String, Truck> byName = new HashMap<>();
+        for (Truck truck : fleet) byName.put(truck.getName(), truck);
+        Map<Truck, Truck.State> states = new HashMap<>();
+        for (Truck.State state : checkpoint.trucks()) {
+            Truck truck = byName.get(state.name());
+            if (truck == null) {
+                throw new IllegalArgumentException("Punkt kontrolny ma nieznana ciezarowke " + state.name());
+            }
+            if (states.put(truck, state) != null) {
+                throw new IllegalArgumentException("Punkt kontrolny ma dwa razy ciezarowke " + state.name());
+            }
+        }
+        //tyle samo stanow co ciezarowek i zadnych powtorzen - kazda ciezarowka floty ma swoj stan
+        String docked = checkpoint.dispatcher().docked();
+        if (docked != null && !byName.containsKey(docked)) {
+            throw new IllegalArgumentException("Punkt kontrolny ma przy tasmie nieznana ciezarowke " + docked);
+        }
+        belt.restoreState(checkpoint.belt());
+        for (Map.Entry<Truck, Truck.State> entry : states.entrySet()) {
+            entry.getKey().restoreState(entry.getValue());
+        }
+        dispatcher.restoreState(checkpoint.dispatcher());
+    }
+
+    //kazdy pracownik startuje na wlasnym watku wirtualnym
+    public void start() {
+        for (Worker worker : workers) {
+            worker.start();
+        }
+        dispatcher.start();
+    }
+
+    public void stop() {
+        for (Worker worker : workers) {
+            worker.stopWorker();
+        }
+        dispatcher.stopDispatcher();
+    }
+}
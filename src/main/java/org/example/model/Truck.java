@@ -1,133 +1,123 @@
 package org.example.model;
-import javafx.application.Platform;
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import java.util.ArrayList;
-import java.util.List;
-import javafx.beans.property.SimpleBooleanProperty;
-import javafx.beans.property.BooleanProperty;
-import java.util.Timer;
-import java.util.TimerTask;
-
-
-public class Truck extends Thread {
-    //referencja do tasmy
-    private ConveyorBelt belt;
-    private static int size;
-    //lista cegiel zaladowanych
-    private final List<Integer> loadedBricks = new ArrayList<>();
-    private static int actual = 0;
-
-    // łaściwości JavaFX do ciągłego monitorowania stanu ciężarówki
-    private final IntegerProperty currentWeight = new SimpleIntegerProperty(0);
-    private final IntegerProperty maxCapacity = new SimpleIntegerProperty(0);
-    private final BooleanProperty informationProperty = new SimpleBooleanProperty(false);
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+//jedna ciezarowka floty - stan jest per instancja, cyklem zarzadza TruckDispatcher
+public class Truck {
+    private final String name;
+    private volatile int size;
+    //liczba cegiel zaladowanych
+    private int loadedCount = 0;
+    private volatile int actual = 0;
+
+    // obserwatorzy do ciągłego monitorowania stanu ciężarówki
+    private final LineListeners listeners = new LineListeners();
 
     private volatile boolean running = true;
-    private Timer animationTimer;
-    private Timer updateTimer;
+    private volatile EventLog log = EventLog.shared();
+    //zmiany stanu publikowane na wspolnym planiscie: seria zmian przed publikacja
+    //daje jedno zdarzenie, a bez zmian nie ma zadnej pracy
+    private final AtomicBoolean publishPending = new AtomicBoolean();
+    private final Object publishLock = new Object();
+    private int publishedActual = 0; //pod publishLock
+    private int publishedSize;
 
 
-    public static int getActual() {
+    public int getActual() {
         return actual;
     }
-    public static int getSize() {
+    public int getSize() {
         return size;
     }
-    public static void setSize(int Size) {
-        size=Size;
+    public String getName() {
+        return name;
     }
-
-    //parametrem jest wielkosc i referencja do tasmy z ktorej korzysta ciężarówka
-    public Truck(int size, ConveyorBelt belt) {
-        super("Truck");
-        Truck.size = size;
-        this.belt = belt;
-        setDaemon(true); //aby nie blokowal zamykania
-        maxCapacity.set(size);
-        startUpdateTimer();
+    //ile masy jeszcze sie zmiesci
+    public int remaining() {
+        return Math.max(0, size - actual);
     }
 
-    private void startUpdateTimer() {
-        updateTimer = new Timer(true); // true = daemon timer
-        updateTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                if (running) {
-                    updateProperties();
-                }
-            }
-        }, 0, 100); // Aktualizacja co 100ms
+    //nowa ladownosc z przeladowanej konfiguracji; ladunek ponad nia oznacza pelna ciezarowke
+    public synchronized void setSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Ladownosc musi byc dodatnia: " + size);
+        }
+        this.size = size;
+        if (running) {
+            updateProperties();
+        }
     }
-    private void updateProperties() {
-        if (!running) return;
-
-        Platform.runLater(() -> {
-            if (running) {
-                currentWeight.set(actual);
-                maxCapacity.set(size);
-            }
-        });
+    public void setEventLog(EventLog log) {
+        this.log = log;
     }
-    public void stopTruck() {
-        running = false;
-        interrupt();
-        cleanupResources();
+
+    public Truck(String name, int size) {
+        this.name = name;
+        this.size = size;
+        this.publishedSize = size;
     }
 
-    private void cleanupResources() {
-        // Anuluj wszystkie zaplanowane zadania timerów
-        if (animationTimer != null) {
-            animationTimer.cancel();
-            animationTimer = null;
+    //zglasza zmiane stanu; jesli publikacja juz czeka, zmiana trafi do niej.
+    //Bez obserwatorow (symulacja, benchmarki) nic nie planuje
+    private void updateProperties() {
+        if (!listeners.isEmpty() && publishPending.compareAndSet(false, true)) {
+            LineScheduler.shared().execute(this::publishState);
         }
+    }
 
-        if (updateTimer != null) {
-            updateTimer.cancel();
-            updateTimer = null;
+    //wysyla najnowszy stan, o ile rozni sie od ostatnio wyslanego
+    private void publishState() {
+        synchronized (publishLock) {
+            publishPending.set(false);
+            if (!running) return;
+            int a = actual;
+            int s = size;
+            if (a == publishedActual && s == publishedSize) return;
+            publishedActual = a;
+            publishedSize = s;
+            listeners.truckChanged(name, a, s);
         }
-
-        System.out.println("Truck - zasoby wyczyszczone");
+    }
+    public void stopTruck() {
+        running = false;
+        log.log(EventLog.Event.TRUCK_STOPPED, name);
     }
 
     public boolean isFull() {
-        return actual == size;
+        return actual >= size;
     }
 
-    public synchronized void unload() {
-        System.out.println("ROZLADOWANO");
-        loadedBricks.clear();   //usuwa wszystkie cegły z ciężarówki
-        actual = 0;            //resetuje aktualną masę
-
-        // aktualizacja jesli aplikacja dziala
-        if (running) {
-            updateProperties(); //aktualizacja właściwości
-            belt.reset();          //reset tasmy po rozladowaniu
+    public void unload() {
+        int mass;
+        synchronized (this) {
+            mass = actual;
+            loadedCount = 0;        //usuwa wszystkie cegły z ciężarówki
+            actual = 0;            //resetuje aktualną masę
 
-            //powiadamia watki ze ciezarowka rozladowana i mozna dalej pracowac
-            synchronized (belt.lock) {
-                belt.lock.notifyAll();
+            // aktualizacja jesli aplikacja dziala
+            if (running) {
+                updateProperties(); //aktualizacja właściwości
             }
         }
+        listeners.truckUnloaded(name, mass);
+        log.log(EventLog.Event.TRUCK_UNLOADED, name);
     }
     //monitorowanie
-    public IntegerProperty currentWeightProperty() {
-        return currentWeight;
-    }
-    public IntegerProperty maxCapacityProperty() {
-        return maxCapacity;
+    public void addListener(LineListener listener) {
+        listeners.add(listener);
     }
-    public BooleanProperty informationProperty() {
-        return informationProperty;
+    public void removeListener(LineListener listener) {
+        listeners.remove(listener);
     }
 
     public synchronized void load(int brick) {
         //dla bezpieczenstwa sprawdzam czy moge zaladowac
         if (actual + brick > size) {
-            throw new IllegalStateException("Próba przeladowania cięzarówki");
+            throw new IllegalStateException("Próba przeladowania cięzarówki " + name);
         }
-        loadedBricks.add(brick);           // Dodaje cegłę do listy
+        loadedCount++;                     // Dodaje cegłę
         actual += brick;                   // Zwiększa aktualną masę
+        listeners.truckLoaded(name, 1, brick);
 
         // Aktualizacja właściwości po załadowaniu cegły
         if (running) {
@@ -135,92 +125,45 @@ public class Truck extends Thread {
         }
     }
 
-    @Override
-    public void run() {
-        try {
-            while (running && !Thread.currentThread().isInterrupted()) {
-                try {
-                    //czeka az tasma bedzie pelna
-                    belt.waitForFullBelt();
-                    if (!running || Thread.currentThread().isInterrupted()) {
-                        break;
-                    }
-                    // pobiera cegly z tasmy
-                    List<Integer> bricksToLoad = belt.takeBricksForTruck(size);
-
-                    // Ładuje każdą cegłę na ciężarówkę
-                    for (Integer brick : bricksToLoad) {
-                        if (!running || Thread.currentThread().isInterrupted()) {
-                            break;
-                        }
-                        load(brick);
-                        //pauza zeby byl widoczny efekt ladowania
-                        Thread.sleep(50);
-                    }
-
-                    //stan ciezarowki po ladowaniu
-                    System.out.println("Aktualny stan ciezarowki: " + actual + "/" + size +
-                            " (liczba cegieł: " + loadedBricks.size() + ")");
-
-                    //gdy ciezarowka pelna to ja rozladuj
-                    if (isFull() && running && !Thread.currentThread().isInterrupted()) {
-                        //trigger animacji
-                        if (running) {
-                            Platform.runLater(() -> {
-                                if (running) {
-                                    informationProperty.set(true);
-                                    if (animationTimer != null) {
-                                        animationTimer.cancel();
-                                    }
-                                    animationTimer = new Timer();
-                                    animationTimer.schedule(
-                                            new TimerTask() {
-                                                @Override
-                                                public void run() {
-                                                    if (running) {
-                                                        Platform.runLater(() -> {
-                                                            if (running) {
-                                                                informationProperty.set(false);
-                                                            }
-                                                        });
-                                                    }
-                                                }
-                                            },
-                                            1000
-                                    );
-                                }
-                            });
-                        }
-
-                        if (running && !Thread.currentThread().isInterrupted()) {
-                            Thread.sleep(3000);
-                        }
-
-                        if (running && !Thread.currentThread().isInterrupted()) {
-                            unload();
-                        }
-                    }
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    running = false;
-                    break;
-                } catch (Exception e) {
-                    if (running) {
-                        System.err.println("Truck błąd: " + e.getMessage());
-                        e.printStackTrace();
-                    }
-                }
-            }
-        } finally {
-            //zawsze gdy watek sie zakonczy
-            cleanupResources();
-            System.out.println("Truck watek zakonczony");
+    //laduje cala partie zdjeta z tasmy (pierwsze n cegiel z bufora) jako jedna operacje:
+    //pojemnosc sprawdzana raz, obserwatorzy dostaja jedna zmiane stanu
+    public synchronized void load(int[] bricks, int n) {
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            total += bricks[i];
+        }
+        if (actual + total > size) {
+            throw new IllegalStateException("Próba przeladowania cięzarówki " + name);
+        }
+        loadedCount += n;
+        actual += total;
+        listeners.truckLoaded(name, n, total);
+
+        if (running) {
+            updateProperties();
         }
     }
 
-    @Override
-    public void interrupt() {
-        running = false;
-        super.interrupt();
+    //ladunek do punktu kontrolnego
+    public record State(String name, int actual, int loadedCount) { }
+
+    public synchronized State captureState() {
+        return new State(name, actual, loadedCount);
+    }
+
+    //odtwarza ladunek z punktu kontrolnego
+    public synchronized void restoreState(State state) {
+        if (state.actual() < 0 || state.actual() > size || state.loadedCount() < 0) {
+            throw new IllegalArgumentException("Niepoprawny ladunek " + state.actual() + "/" + size + " ciezarowki " + name);
+        }
+        this.actual = state.actual();
+        this.loadedCount = state.loadedCount();
+        if (running) {
+            updateProperties();
+        }
+    }
+
+    public synchronized int getLoadedCount() {
+        return loadedCount;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,276 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Dyspozytor floty ciezarowek. Przy tasmie stoi zawsze jedna ciezarowka;
+ * gdy sie zapelni, odjezdza do rozladunku, a jej miejsce od razu zajmuje
+ * nastepna wolna. Rozladunek odbywa sie wiec rownolegle z ladowaniem kolejnej.
+ */
+public class TruckDispatcher implements Runnable {
+    public static final long DEFAULT_UNLOAD_PAUSE_MILLIS = 3000;
+    //najkrotszy postoj pustej ciezarowki przed ponownym podjazdem (tak samo w EventSimulation)
+    public static final long EMPTY_RETRY_MILLIS = 100;
+
+    private final Belt belt;
+    private final List<Truck> fleet;
+    //wolne ciezarowki w kolejnosci powrotu z rozladunku
+    private final BlockingQueue<Truck> available = new LinkedBlockingQueue<>();
+    //bufor na cegly zdejmowane z tasmy, zeby nie alokowac przy kazdym kursie
+    private int[] bricksToLoad;
+
+    private final LineListeners listeners = new LineListeners();
+
+    private volatile boolean running = true;
+    private volatile String name = "TruckDispatcher";
+    private volatile Thread thread;
+
+    //przekazanie cegiel tasma -> ciezarowka; punkt kontrolny bierze ten zamek,
+    //zeby nie zlapac cegiel zdjetych z tasmy, a jeszcze nie zaladowanych
+    private final ReentrantLock handoffLock = new ReentrantLock();
+    private volatile Truck docked;
+
+    //czas rozladunku (0 w benchmarkach); tempo ladowania cegla po cegle pokazuje tylko GUI
+    private volatile long unloadPauseMillis = DEFAULT_UNLOAD_PAUSE_MILLIS;
+    //rozladunki czekaja na wspolnym planiscie - bez watku na kazdy kurs
+    private volatile ScheduledExecutorService scheduler = LineScheduler.shared();
+
+    //statystyki do podsumowania
+    private final LongAdder trips = new LongAdder();
+    private final LongAdder deliveredMass = new LongAdder();
+    private final LongAdder deliveredBricks = new LongAdder();
+    private volatile LineMetrics metrics;
+    private volatile EventLog log = EventLog.shared();
+
+    public TruckDispatcher(Belt belt, int truckCount, int truckCapacity) {
+        if (truckCount <= 0) {
+            throw new IllegalArgumentException("Flota musi miec co najmniej jedna ciezarowke");
+        }
+        this.belt = belt;
+        this.bricksToLoad = new int[belt.getCountMax()];
+        List<Truck> trucks = new ArrayList<>(truckCount);
+        for (int i = 1; i <= truckCount; i++) {
+            Truck truck = new Truck("T" + i, truckCapacity);
+            trucks.add(truck);
+            available.add(truck);
+        }
+        this.fleet = Collections.unmodifiableList(trucks);
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    //watek w tle, aby nie blokowal zamykania
+    public void start() {
+        thread = Thread.ofPlatform().name(name).daemon(true).start(this);
+    }
+
+    public void join() throws InterruptedException {
+        Thread t = thread;
+        if (t != null) t.join();
+    }
+
+    public List<Truck> getFleet() { return fleet; }
+    public long getTrips() { return trips.sum(); }
+    public long getDeliveredMass() { return deliveredMass.sum(); }
+    public long getDeliveredBricks() { return deliveredBricks.sum(); }
+
+    public void setMetrics(LineMetrics metrics) { this.metrics = metrics; }
+
+    public void setEventLog(EventLog log) {
+        this.log = log;
+        for (Truck truck : fleet) truck.setEventLog(log);
+    }
+
+    public void setUnloadPauseMillis(long millis) { this.unloadPauseMillis = millis; }
+    public void setScheduler(ScheduledExecutorService scheduler) { this.scheduler = scheduler; }
+
+    //obserwator dostaje zdarzenia dyspozytora i wszystkich ciezarowek floty
+    public void addListener(LineListener listener) {
+        listeners.add(listener);
+        for (Truck truck : fleet) truck.addListener(listener);
+    }
+    public void removeListener(LineListener listener) {
+        listeners.remove(listener);
+        for (Truck truck : fleet) truck.removeListener(listener);
+    }
+
+    //stan dyspozytora do punktu kontrolnego (ciezarowka przy tasmie i liczniki)
+    public record State(String docked, long trips, long deliveredMass, long deliveredBricks) { }
+
+    //wykonuje action bez przekazania cegiel w toku - dyspozytor czeka najwyzej tyle, ile trwa action
+    public <T> T withHandoffPaused(Supplier<T> action) {
+        handoffLock.lock();
+        try {
+            return action.get();
+        } finally {
+            handoffLock.unlock();
+        }
+    }
+
+    public State captureState() {
+        Truck truck = docked;
+        return new State(truck != null ? truck.getName() : null, trips.sum(), deliveredMass.sum(), deliveredBricks.sum());
+    }
+
+    //przed startem: ciezarowka z punktu kontrolnego podjedzie pierwsza, liczniki biegna dalej.
+    //Ladunek pozostalych byl w drodze albo w rozladunku - ich kurs jest juz policzony w trips,
+    //wiec jada prosto do rozladunku i wracaja puste, zamiast ladowac dalej i liczyc kurs drugi raz
+    public void restoreState(State state) {
+        if (thread != null) {
+            throw new IllegalStateException("Stan mozna odtworzyc tylko przed startem dyspozytora");
+        }
+        List<Truck> order = new ArrayList<>(fleet);
+        order.sort(Comparator.comparing((Truck t) -> !t.getName().equals(state.docked())));
+        available.clear();
+        long now = System.nanoTime();
+        for (Truck truck : order) {
+            if (truck.getActual() > 0 && !truck.getName().equals(state.docked())) {
+                scheduleUnload(truck, now);
+            } else {
+                available.add(truck);
+            }
+        }
+        trips.reset();
+        trips.add(state.trips());
+        deliveredMass.reset();
+        deliveredMass.add(state.deliveredMass());
+        deliveredBricks.reset();
+        deliveredBricks.add(state.deliveredBricks());
+    }
+
+    //nowa ladownosc calej floty; ciezarowka przy tasmie od razu przelicza limit tasmy
+    public void setTruckCapacity(int capacity) {
+        withHandoffPaused(() -> {
+            for (Truck truck : fleet) truck.setSize(capacity);
+            Truck truck = docked;
+            if (truck != null) belt.dockTruck(truck.remaining());
+            return null;
+        });
+    }
+
+    public void stopDispatcher() {
+        running = false;
+        Thread t = thread;
+        if (t != null) t.interrupt();
+        for (Truck truck : fleet) truck.stopTruck();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running && !Thread.currentThread().isInterrupted()) {
+                //najblizsza wolna ciezarowka podjezdza pod tasme
+                Truck truck = available.take();
+                long dockedAt = System.nanoTime();
+                try {
+                    load(truck);
+                } catch (RuntimeException e) {
+                    //blad obserwatora albo strategii ladowania konczy tylko ten kurs, nie cala linie
+                    if (running) log.error(getName(), e.toString());
+                    abandon(truck);
+                }
+                depart(truck, dockedAt);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running = false;
+            log.log(EventLog.Event.DISPATCHER_STOPPED, getName());
+        }
+    }
+
+    //ciezarowka stoi przy tasmie, dopoki sie nie zapelni albo nic wiecej sie nie zmiesci
+    private void load(Truck truck) throws InterruptedException {
+        docked = truck;
+        belt.dockTruck(truck.getSize() - truck.getActual());
+        listeners.truckDocked(truck.getName(), truck.getActual(), truck.getSize());
+
+        boolean departing = false;
+        while (!departing && running) {
+            //czeka az tasma bedzie pelna
+            belt.waitForFullBelt();
+            handoffLock.lock();
+            try {
+                //tasma mogla urosnac po przeladowaniu konfiguracji
+                if (bricksToLoad.length < belt.getCountMax()) bricksToLoad = new int[belt.getCountMax()];
+                // pobiera cegly z tasmy
+                int count = belt.takeBricksForTruck(truck.remaining(), bricksToLoad);
+
+                // cala partia trafia na ciezarowke jedna operacja
+                truck.load(bricksToLoad, count);
+                int mass = 0;
+                for (int i = 0; i < count; i++) {
+                    mass += bricksToLoad[i];
+                }
+                deliveredMass.add(mass);
+                deliveredBricks.add(count);
+
+                //z pelnej tasmy nic sie juz nie zmiesci - ciezarowka jedzie niepelna
+                departing = truck.isFull() || count == 0;
+                if (departing) {
+                    docked = null;
+                    if (truck.getActual() > 0) trips.increment();
+                }
+            } finally {
+                handoffLock.unlock();
+            }
+
+            //stan ciezarowki po ladowaniu
+            log.log(EventLog.Event.TRUCK_LOADED, truck.getName(), truck.getActual(), truck.getSize(), truck.getLoadedCount());
+        }
+    }
+
+    //kurs przerwany bledem: ciezarowka odjezdza z tym, co juz zaladowano
+    private void abandon(Truck truck) {
+        handoffLock.lock();
+        try {
+            if (docked == truck) {
+                docked = null;
+                if (truck.getActual() > 0) trips.increment();
+            }
+        } finally {
+            handoffLock.unlock();
+        }
+    }
+
+    //ciezarowka odjezdza, rozladunek nie blokuje tasmy. Pusta (cegla ciezsza niz ladownosc albo blad)
+    //wraca do kolejki dopiero po chwili - inaczej podjezdzalaby pod pelna tasme w kolko
+    private void depart(Truck truck, long dockedAt) {
+        if (truck.getActual() > 0) {
+            try {
+                listeners.truckDeparted(truck.getName());
+            } catch (RuntimeException e) {
+                log.error(getName(), e.toString());
+            }
+            scheduleUnload(truck, dockedAt);
+        } else if (running) {
+            log.error(getName(), "Ciezarowka " + truck.getName() + " odjechala pusta");
+            scheduler.schedule(() -> available.add(truck), Math.max(unloadPauseMillis, EMPTY_RETRY_MILLIS), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    //ciezarowka wraca do kolejki po czasie rozladunku
+    private void scheduleUnload(Truck truck, long dockedAt) {
+        scheduler.schedule(() -> unloadAndReturn(truck, dockedAt), unloadPauseMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void unloadAndReturn(Truck truck, long dockedAt) {
+        LineMetrics stats = metrics;
+        if (stats != null) {
+            stats.recordTrip(truck.getActual(), truck.getSize(), System.nanoTime() - dockedAt);
+        }
+        truck.unload();
+        available.add(truck);
+    }
+}
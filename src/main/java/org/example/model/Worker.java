@@ -1,34 +1,62 @@
 package org.example.model;
 
-import javafx.application.Platform;
-import javafx.beans.property.BooleanProperty;
-import javafx.beans.property.SimpleBooleanProperty;
-import org.example.app.AppMain;
+import java.util.concurrent.ThreadLocalRandom;
 
-
-public class Worker extends Thread {
-    private final ConveyorBelt belt = AppMain.belt;
-    private final int brickMass;
-    private final BooleanProperty information = new SimpleBooleanProperty(false);
-    private final int time;
-    private volatile boolean brickAdded = false;
+//pracownik dziala na watku wirtualnym - tysiace pracownikow to tysiace tanich watkow,
+//a sen w run() i czekanie w Belt.addBrick (ReentrantLock w obu tasmach) nie blokuja nosnika
+public class Worker implements Runnable {
+    private final Belt belt;
+    private final String name;
+    //zmieniane przez przeladowanie konfiguracji, czytane raz na cegle
+    private volatile int brickMass;
+    private final LineListeners listeners = new LineListeners();
+    private volatile int time;
+    //losowa masa, odchylenie interwalu i przerwy (domyslnie brak)
+    private volatile WorkerVariation variation = WorkerVariation.NONE;
     private volatile boolean running = true;
+    private volatile Thread thread;
+    private volatile EventLog log = EventLog.shared();
 
 
-    public Worker(String name, int brickMass, int time) {
-        super(name);
+    public Worker(String name, int brickMass, int time, Belt belt) {
+        this.name = name;
+        this.belt = belt;
         this.brickMass = brickMass;
         this.time = time;
-        setDaemon(true);
     }
 
+    public String getName() {
+        return name;
+    }
+
+    public int getBrickMass() { return brickMass; }
+    public void setBrickMass(int brickMass) { this.brickMass = brickMass; }
+    public int getInterval() { return time; }
+    public void setInterval(int interval) { this.time = interval; }
+    public WorkerVariation getVariation() { return variation; }
+    public void setVariation(WorkerVariation variation) { this.variation = variation; }
+
+    public void setEventLog(EventLog log) {
+        this.log = log;
+    }
+
+    public void addListener(LineListener listener) {
+        listeners.add(listener);
+    }
+    public void removeListener(LineListener listener) {
+        listeners.remove(listener);
+    }
 
-    public BooleanProperty informationProperty() {
-        return information;
+    public void start() {
+        thread = Thread.ofVirtual().name(name).start(this);
     }
+
     public void stopWorker() {
         running = false;
-        interrupt();
+        Thread t = thread;
+        if (t != null) {
+            t.interrupt();
+        }
     }
 
 
@@ -36,59 +64,33 @@ public class Worker extends Thread {
     public void run() {
         try {
             while (running && !Thread.currentThread().isInterrupted()) {
-                brickAdded = false;
-
                 try {
-                    belt.addBrick(brickMass);
-                    brickAdded = true;
+                    int mass = variation.nextMass(brickMass, ThreadLocalRandom.current());
+                    belt.addBrick(mass, name, time);
 
                     if (!Thread.currentThread().isInterrupted() && running) {
-                        Platform.runLater(() -> {
-                            if (brickAdded) {
-                                informationProperty().set(true);
-                                Thread resetThread = new Thread(() -> {
-                                    try {
-                                        Thread.sleep(500);
-                                        if (Platform.isFxApplicationThread()) {
-                                            informationProperty().set(false);
-                                        } else {
-                                            Platform.runLater(() -> informationProperty().set(false));
-                                        }
-                                    } catch (InterruptedException ex) {
-                                        Thread.currentThread().interrupt();
-                                    }
-                                });
-                                resetThread.setDaemon(true);
-                                resetThread.start();
-                            }
-                        });
+                        listeners.brickAdded(name, mass);
                     }
 
                 } catch (Exception e) {
                     if (running) {
-                        System.err.println(getName() + " problem z dodaniem cegly: " + e.getMessage());
+                        log.error(name, "problem z dodaniem cegly: " + e.getMessage());
                     }
                     Thread.currentThread().interrupt();
                     running = false;
                 }
                 if (running && !Thread.currentThread().isInterrupted()) {
-                    Thread.sleep(time);
+                    Thread.sleep(variation.nextDelay(time, ThreadLocalRandom.current()));
                 } else {
                     break;
                 }
             }
         } catch (InterruptedException e) {
         } catch (Exception e) {
-            System.err.println(getName() + " nieoczekiwany błąd: " + e.getMessage());
+            log.error(name, "nieoczekiwany błąd: " + e.getMessage());
         } finally {
-            System.out.println(getName() + " zostal zakonczony");
+            log.log(EventLog.Event.WORKER_STOPPED, name);
             running = false;
         }
     }
-
-    @Override
-    public void interrupt() {
-        running = false;
-        super.interrupt();
-    }
-}
\ No newline at end of file
+}
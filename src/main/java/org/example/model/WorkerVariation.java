@@ -0,0 +1,74 @@
+package org.example.model;
+
+import org.example.config.AppConfig;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Zmiennosc pracy jednego pracownika: odchylenie interwalu, mieszanka mas
+ * cegiel i przerwy. Niezmienna (mieszanka kopiowana przy tworzeniu i odczycie),
+ * wiec jedna instancja moze sluzyc wielu watkom i replikacjom - losowosc
+ * pochodzi z generatora wywolujacego.
+ */
+public record WorkerVariation(double intervalJitter, int[] massMix, double breakProbability, int breakMillis) {
+
+    //brak zmiennosci - stala masa i staly interwal
+    public static final WorkerVariation NONE = new WorkerVariation(0, null, 0, 0);
+
+    public WorkerVariation {
+        if (intervalJitter < 0 || intervalJitter > 1) {
+            throw new IllegalArgumentException("Odchylenie interwalu poza zakresem 0..1: " + intervalJitter);
+        }
+        if (breakProbability < 0 || breakProbability > 1 || breakMillis < 0) {
+            throw new IllegalArgumentException("Niepoprawna przerwa: " + breakProbability + ", " + breakMillis + " ms");
+        }
+        if (massMix != null) {
+            massMix = massMix.length == 0 ? null : massMix.clone();
+            if (massMix != null) for (int mass : massMix) {
+                if (mass <= 0) throw new IllegalArgumentException("Masa cegly musi byc dodatnia: " + mass);
+            }
+        }
+    }
+
+    public static WorkerVariation of(AppConfig.WorkerConfig config) {
+        List<Integer> mix = config.getMassMix();
+        int[] masses = mix == null ? null : mix.stream().mapToInt(Integer::intValue).toArray();
+        if (config.getIntervalJitter() == 0 && masses == null && config.getBreakProbability() == 0) return NONE;
+        return new WorkerVariation(config.getIntervalJitter(), masses, config.getBreakProbability(), config.getBreakMillis());
+    }
+
+    @Override
+    public int[] massMix() {
+        return massMix == null ? null : massMix.clone();
+    }
+
+    public boolean isNone() {
+        return intervalJitter == 0 && massMix == null && breakProbability == 0;
+    }
+
+    //najciezsza mozliwa cegla (do sprawdzenia limitow tasmy i ciezarowki)
+    public int maxMass(int baseMass) {
+        if (massMix == null) return baseMass;
+        int max = 0;
+        for (int mass : massMix) max = Math.max(max, mass);
+        return max;
+    }
+
+    //masa nastepnej cegly: losowa z mieszanki albo stala
+    public int nextMass(int baseMass, RandomGenerator random) {
+        return massMix == null ? baseMass : massMix[random.nextInt(massMix.length)];
+    }
+
+    //czas do nastepnej cegly: interwal z odchyleniem, czasem z przerwa
+    public long nextDelay(long interval, RandomGenerator random) {
+        long delay = interval;
+        if (intervalJitter > 0) {
+            delay = Math.round(interval * (1 + intervalJitter * (2 * random.nextDouble() - 1)));
+        }
+        if (breakProbability > 0 && random.nextDouble() < breakProbability) {
+            delay += breakMillis;
+        }
+        return delay;
+    }
+}
@@ -0,0 +1,264 @@
+package org.example.sim;
+
+import org.example.config.AppConfig;
+import org.example.model.AdmissionPolicy;
+import org.example.model.Belt;
+import org.example.model.BeltType;
+import org.example.model.EventLog;
+import org.example.model.LoadingStrategy;
+import org.example.model.ProductionLine;
+import org.example.model.Truck;
+import org.example.model.TruckDispatcher;
+import org.example.model.WorkerVariation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * Symulacja dyskretna linii na zegarze wirtualnym. Uzywa tych samych klas
+ * tasmy (Belt) i Truck co model watkowy (przez ich metody bez czekania),
+ * a sen i czekanie watkow zastepuje kolejka priorytetowa zdarzen.
+ * Zachowuje kolejnosc krokow pracownika (addBrick, potem sen) i dyspozytora
+ * (waitForFullBelt, zdjecie cegiel, ladowanie, odjazd pelnej ciezarowki).
+ * Cegly przyjmowane sa zawsze bez kolejki (BARGING) - inne polityki przyjec sa odrzucane.
+ */
+public class EventSimulation {
+    private static final int WORKER_READY = 0;  //pracownik probuje polozyc cegle
+    private static final int TRUCK_ARRIVED = 1; //ciezarowka dojechala do pelnej tasmy
+    private static final int LOAD_DONE = 2;     //partia zaladowana, dyspozytor decyduje o odjezdzie
+    private static final int UNLOAD_DONE = 3;   //ciezarowka wraca z rozladunku
+
+    private final PriorityQueue<SimEvent> queue = new PriorityQueue<>();
+    private long now = 0;
+    private long seq = 0;
+
+    private final Belt belt;
+    private final String[] workerNames;
+    private final int[] masses;
+    private final long[] intervals;
+    //zmiennosc pracownikow i masa cegli, ktora kazdy ma teraz w rekach
+    private final WorkerVariation[] variations;
+    private final int[] nextMass;
+    private final SplittableRandom random;
+    private Interleaving interleaving;
+    private final Truck[] trucks;
+    private final int[] bricksToLoad;
+
+    //czasy jak w modelu watkowym
+    private long truckArrivalMillis = Belt.DEFAULT_TRUCK_ARRIVAL_MILLIS;
+    private long unloadPauseMillis = TruckDispatcher.DEFAULT_UNLOAD_PAUSE_MILLIS;
+
+    //pracownicy czekajacy na miejsce (kolejnosc zablokowania) i wolne ciezarowki
+    private final ArrayDeque<Integer> blockedWorkers = new ArrayDeque<>();
+    private final ArrayDeque<Integer> availableTrucks = new ArrayDeque<>();
+    private int docked = -1;               //ciezarowka przy tasmie, -1 gdy brak
+    private boolean waitingForFull = false; //dyspozytor czeka w waitForFullBelt
+    private long fullSince = -1;
+
+    //statystyki
+    private long bricksAdded, massAdded, trips, deliveredBricks, deliveredMass, stallMillis;
+    private long tripMass, tripCapacity;
+    private int lastLoaded; //ile cegiel weszlo w ostatniej partii
+    private final long[] workerBricks;
+
+    public EventSimulation(AppConfig config, int truckCount) {
+        this(config, truckCount, new SplittableRandom(0));
+    }
+
+    //losowosc pracownikow (jesli konfiguracja ja opisuje) z generatora tego przebiegu -
+    //ten sam generator daje ten sam przebieg, a replikacje nie dziela zadnego stanu
+    public EventSimulation(AppConfig config, int truckCount, SplittableRandom random) {
+        ProductionLine.checkWorkers(config);
+        checkAdmissionPolicy(config);
+        this.random = random;
+        this.belt = BeltType.valueOf(config.getBeltType()).create(config.getBeltCountMax(), config.getBeltWeightMax());
+        belt.setEventLog(EventLog.disabled());
+        belt.setLoadingStrategy(LoadingStrategy.valueOf(config.getLoadingStrategy()));
+        belt.setReserveTruckCapacity(config.isReserveTruckCapacity());
+
+        List<String> names = new ArrayList<>();
+        List<AppConfig.WorkerConfig> expanded = new ArrayList<>();
+        List<AppConfig.WorkerConfig> configs = config.getWorkers();
+        for (int i = 0; i < configs.size(); i++) {
+            AppConfig.WorkerConfig wc = configs.get(i);
+            String name = wc.getName() != null ? wc.getName() : "P" + (i + 1);
+            int count = Math.max(1, wc.getCount());
+            for (int k = 1; k <= count; k++) {
+                names.add(count == 1 ? name : name + "-" + k);
+                expanded.add(wc);
+            }
+        }
+        this.workerNames = names.toArray(new String[0]);
+        this.masses = new int[expanded.size()];
+        this.intervals = new long[expanded.size()];
+        this.variations = new WorkerVariation[expanded.size()];
+        this.nextMass = new int[expanded.size()];
+        for (int i = 0; i < expanded.size(); i++) {
+            masses[i] = expanded.get(i).getBrickMass();
+            intervals[i] = expanded.get(i).getInterval();
+            variations[i] = WorkerVariation.of(expanded.get(i));
+        }
+        this.workerBricks = new long[expanded.size()];
+
+        this.trucks = new Truck[truckCount];
+        for (int i = 0; i < truckCount; i++) {
+            trucks[i] = new Truck("T" + (i + 1), config.getTruckCapacity());
+            trucks[i].setEventLog(EventLog.disabled());
+            availableTrucks.add(i);
+        }
+        this.bricksToLoad = new int[belt.getCountMax()];
+    }
+
+    //pracownicy probuja kolejno (tryAddBrick) - kolejka przyjec nie jest modelowana, wiec inna
+    //polityka dalaby wyniki BARGING pod cudza nazwa
+    static void checkAdmissionPolicy(AppConfig config) {
+        AdmissionPolicy policy = AdmissionPolicy.valueOf(config.getAdmissionPolicy());
+        if (policy != AdmissionPolicy.BARGING) {
+            throw new IllegalArgumentException("Symulacja modeluje tylko przyjmowanie bez kolejki (BARGING), nie "
+                    + policy + " - uzyj --admission=BARGING");
+        }
+    }
+
+    public void setTruckArrivalMillis(long millis) { this.truckArrivalMillis = millis; }
+    public void setUnloadPauseMillis(long millis) { this.unloadPauseMillis = millis; }
+
+    //tryb deterministyczny: kroki gotowe w tej samej chwili wybiera (i zapisuje) przeplot z ziarna
+    public void setInterleaving(Interleaving interleaving) { this.interleaving = interleaving; }
+
+    //przebieg od t=0 do durationMillis czasu wirtualnego
+    public SimulationResult run(long durationMillis) {
+        try {
+            for (int i = 0; i < masses.length; i++) {
+                nextMass[i] = variations[i].nextMass(masses[i], random);
+                schedule(0, WORKER_READY, i);
+            }
+            dockNextTruck();
+
+            SimEvent event;
+            while ((event = nextEvent(durationMillis)) != null) {
+                now = event.time;
+                switch (event.type) {
+                    case WORKER_READY -> workerReady(event.actor);
+                    case TRUCK_ARRIVED -> truckArrived();
+                    case LOAD_DONE -> loadDone();
+                    case UNLOAD_DONE -> unloadDone(event.actor);
+                    default -> throw new IllegalStateException("Nieznane zdarzenie " + event.type);
+                }
+            }
+            if (fullSince >= 0) {
+                stallMillis += durationMillis - fullSince;
+            }
+            if (interleaving != null) {
+                interleaving.finish();
+            }
+        } finally {
+            for (Truck truck : trucks) truck.stopTruck();
+        }
+        return new SimulationResult(durationMillis, bricksAdded, massAdded, trips, tripMass, tripCapacity,
+                deliveredBricks, deliveredMass, stallMillis, workerNames, workerBricks);
+    }
+
+    private SimEvent nextEvent(long durationMillis) {
+        if (interleaving != null) return interleaving.next(queue, durationMillis);
+        return queue.isEmpty() || queue.peek().time > durationMillis ? null : queue.poll();
+    }
+
+    private void schedule(long time, int type, int actor) {
+        queue.add(new SimEvent(time, seq++, type, actor));
+    }
+
+    //Worker.run: addBrick, a po sukcesie sen przez interval
+    private void workerReady(int worker) {
+        int mass = nextMass[worker];
+        if (!belt.tryAddBrick(mass)) {
+            blockedWorkers.add(worker); //czeka na capacityFreed
+            checkFull(); //tasma oznaczona jako pelna, bo cegla sie nie miesci
+            return;
+        }
+        bricksAdded++;
+        massAdded += mass;
+        workerBricks[worker]++;
+        nextMass[worker] = variations[worker].nextMass(masses[worker], random);
+        schedule(now + variations[worker].nextDelay(intervals[worker], random), WORKER_READY, worker);
+        checkFull();
+    }
+
+    //tasma pelna i dyspozytor na nia czeka - ciezarowka rusza
+    private void checkFull() {
+        if (!belt.getisFull()) return;
+        if (fullSince < 0) fullSince = now;
+        if (waitingForFull) {
+            waitingForFull = false;
+            schedule(now + truckArrivalMillis, TRUCK_ARRIVED, docked);
+        }
+    }
+
+    private void truckArrived() {
+        belt.truckArrived();
+        stallMillis += now - fullSince;
+        fullSince = -1;
+
+        Truck truck = trucks[docked];
+        int count = belt.takeBricksForTruck(truck.remaining(), bricksToLoad);
+        truck.load(bricksToLoad, count);
+        for (int i = 0; i < count; i++) {
+            deliveredMass += bricksToLoad[i];
+        }
+        deliveredBricks += count;
+        lastLoaded = count;
+        wakeBlockedWorkers();
+        schedule(now, LOAD_DONE, docked);
+    }
+
+    private void loadDone() {
+        Truck truck = trucks[docked];
+        if (truck.isFull() || lastLoaded == 0) {
+            //ciezarowka odjezdza (niepelna, gdy z pelnej tasmy nic sie nie zmiescilo),
+            //przy tasmie staje nastepna wolna
+            if (truck.getActual() > 0) {
+                trips++;
+                tripMass += truck.getActual();
+                tripCapacity += truck.getSize();
+                schedule(now + unloadPauseMillis, UNLOAD_DONE, docked);
+            } else {
+                //pusta wraca po chwili, jak w TruckDispatcher.depart
+                schedule(now + Math.max(unloadPauseMillis, TruckDispatcher.EMPTY_RETRY_MILLIS), UNLOAD_DONE, docked);
+            }
+            docked = -1;
+            dockNextTruck();
+        } else {
+            waitForFullBelt();
+        }
+    }
+
+    private void unloadDone(int truck) {
+        trucks[truck].unload();
+        availableTrucks.add(truck);
+        if (docked < 0) {
+            dockNextTruck();
+        }
+    }
+
+    private void dockNextTruck() {
+        if (availableTrucks.isEmpty()) return; //dyspozytor czeka na powrot ciezarowki
+        docked = availableTrucks.poll();
+        belt.dockTruck(trucks[docked].remaining());
+        wakeBlockedWorkers();
+        waitForFullBelt();
+    }
+
+    private void waitForFullBelt() {
+        waitingForFull = true;
+        checkFull();
+    }
+
+    //zwolnione miejsce budzi wszystkich czekajacych - probuja ponownie w kolejnosci zablokowania
+    private void wakeBlockedWorkers() {
+        while (!blockedWorkers.isEmpty()) {
+            schedule(now, WORKER_READY, blockedWorkers.poll());
+        }
+    }
+}
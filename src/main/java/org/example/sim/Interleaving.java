@@ -0,0 +1,165 @@
+package org.example.sim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * Kolejnosc krokow pracownikow, tasmy i ciezarowek w symulacji deterministycznej.
+ * Kroki gotowe w tej samej chwili (np. kilku pracownikow naraz przy tasmie)
+ * nie ida w kolejnosci zaplanowania, tylko sa losowane generatorem z ziarna -
+ * jak rozne przeplatania watkow, ale to samo ziarno daje zawsze ten sam przeplot.
+ * Kazdy wykonany krok jest zapisywany, a zapis mozna odtworzyc dokladnie,
+ * wykrywajac krok, w ktorym przebieg sie rozjechal (np. po zmianie kodu).
+ */
+public class Interleaving {
+    private static final int MAGIC = 0x494C5631; //"ILV1"
+
+    private final long seed;
+    private final long durationMillis;
+    private final SplittableRandom random; //null przy odtwarzaniu
+    private final long[] replay;           //zapisane kroki albo null
+
+    private long[] steps = new long[1024];
+    private int count = 0;
+    private final List<SimEvent> ready = new ArrayList<>();
+    private final Map<Long, Integer> readyIndex = new HashMap<>();
+    private long readyTime;
+
+    private Interleaving(long seed, long durationMillis, SplittableRandom random, long[] replay) {
+        this.seed = seed;
+        this.durationMillis = durationMillis;
+        this.random = random;
+        this.replay = replay;
+    }
+
+    //nowy przeplot losowany z ziarna
+    public static Interleaving seeded(long seed, long durationMillis) {
+        return new Interleaving(seed, durationMillis, stream(seed, 0), null);
+    }
+
+    //losowosc pracownikow w przebiegu z tym przeplotem: to samo ziarno, ale strumien
+    //niezalezny od wyborow przeplotu (takze przy odtwarzaniu z pliku)
+    public SplittableRandom workerRandom() {
+        return stream(seed, 1);
+    }
+
+    //kolejne strumienie z jednego korzenia: 0 - przeplot, 1 - pracownicy
+    private static SplittableRandom stream(long seed, int index) {
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom stream = root.split();
+        for (int i = 0; i < index; i++) stream = root.split();
+        return stream;
+    }
+
+    //przeplot odczytany z pliku - przebieg musi powtorzyc go krok po kroku
+    public static Interleaving replay(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Plik " + file + " nie jest zapisem przeplotu");
+            }
+            long seed = in.readLong();
+            long durationMillis = in.readLong();
+            long[] recorded = new long[in.readInt()];
+            for (int i = 0; i < recorded.length; i++) recorded[i] = in.readLong();
+            return new Interleaving(seed, durationMillis, null, recorded);
+        }
+    }
+
+    public long getSeed() { return seed; }
+    public long getDurationMillis() { return durationMillis; }
+    public boolean isReplay() { return replay != null; }
+    public int size() { return count; }
+
+    //odcisk calego przeplotu (FNV-1a) - dwa przebiegi z tym samym odciskiem wykonaly te same kroki
+    public long fingerprint() {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < count; i++) {
+            hash = (hash ^ steps[i]) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public void writeTo(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeLong(seed);
+            out.writeLong(durationMillis);
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) out.writeLong(steps[i]);
+        }
+    }
+
+    //nastepny krok albo null, gdy do limitu czasu nic nie zostalo. Kroki gotowe w tej samej
+    //chwili czekaja w ready (takze te zaplanowane na "teraz" w trakcie), a wybor jest O(1)
+    SimEvent next(PriorityQueue<SimEvent> queue, long limitMillis) {
+        if (ready.isEmpty()) {
+            if (queue.isEmpty() || queue.peek().time > limitMillis) return null;
+            readyTime = queue.peek().time;
+        }
+        while (!queue.isEmpty() && queue.peek().time == readyTime) {
+            SimEvent event = queue.poll();
+            readyIndex.put(step(event), ready.size());
+            ready.add(event);
+        }
+        int pick = replay != null ? recordedIndex() : random.nextInt(ready.size());
+        SimEvent chosen = ready.get(pick);
+        //usuniecie przez zamiane z ostatnim
+        SimEvent last = ready.remove(ready.size() - 1);
+        readyIndex.remove(step(chosen));
+        if (last != chosen) {
+            ready.set(pick, last);
+            readyIndex.put(step(last), pick);
+        }
+        return record(chosen);
+    }
+
+    //przy odtwarzaniu zapis musi sie skonczyc razem z przebiegiem
+    void finish() {
+        if (replay != null && count != replay.length) {
+            throw new IllegalStateException("Przebieg rozjechal sie z zapisem: " + count + " krokow zamiast " + replay.length);
+        }
+    }
+
+    //aktor ma naraz najwyzej jedno zdarzenie danego rodzaju, wiec krok jednoznacznie wskazuje zdarzenie
+    private int recordedIndex() {
+        Integer index = readyIndex.get(expected());
+        if (index == null) throw divergence();
+        return index;
+    }
+
+    private long expected() {
+        if (count >= replay.length) {
+            throw new IllegalStateException("Przebieg rozjechal sie z zapisem: wiecej niz " + replay.length + " krokow");
+        }
+        return replay[count];
+    }
+
+    private IllegalStateException divergence() {
+        long expected = replay[count];
+        return new IllegalStateException("Przebieg rozjechal sie z zapisem w kroku " + count + ": oczekiwano zdarzenia "
+                + (expected >>> 32) + " aktora " + (int) expected);
+    }
+
+    private SimEvent record(SimEvent event) {
+        if (count == steps.length) steps = Arrays.copyOf(steps, count * 2);
+        steps[count++] = step(event);
+        return event;
+    }
+
+    //krok jako jedna liczba: rodzaj zdarzenia i indeks aktora
+    private static long step(SimEvent event) {
+        return ((long) event.type << 32) | (event.actor & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.sim;
+
+import org.example.config.AppConfig;
+import org.example.model.ProductionLine;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Replikacje Monte Carlo jednej konfiguracji z losowymi pracownikami
+ * (WorkerVariation). Kazda replikacja to osobna symulacja z wlasnym
+ * generatorem SplittableRandom, wydzielonym z ziarna przed startem -
+ * to samo ziarno daje te same wyniki niezaleznie od liczby watkow.
+ * Replikacje licza sie rownolegle na puli ForkJoin, a kazda zapisuje tylko
+ * swoje pola tablic wynikow, wiec nie ma miedzy nimi zadnych blokad.
+ */
+public class MonteCarlo {
+
+    //rozklad jednej miary z replikacji: srednia z 95% przedzialem ufnosci i percentyle
+    //(przedzialy percentyli z rozkladu dwumianowego statystyk pozycyjnych)
+    public record Summary(int n, double mean, double meanLow, double meanHigh,
+                          double p5, double p50, double p95, double p50Low, double p50High) {
+
+        private static final double Z95 = 1.96;
+
+        public static Summary of(double[] samples) {
+            int n = samples.length;
+            double[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            double mean = 0;
+            for (double x : sorted) mean += x;
+            mean /= n;
+            double var = 0;
+            for (double x : sorted) var += (x - mean) * (x - mean);
+            double sd = n > 1 ? Math.sqrt(var / (n - 1)) : 0;
+            double half = Z95 * sd / Math.sqrt(n);
+            return new Summary(n, mean, mean - half, mean + half,
+                    percentile(sorted, 0.05), percentile(sorted, 0.50), percentile(sorted, 0.95),
+                    sorted[rank(n, 0.50, -Z95)], sorted[rank(n, 0.50, Z95)]);
+        }
+
+        //percentyl metoda najblizszej pozycji
+        private static double percentile(double[] sorted, double p) {
+            int i = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, i))];
+        }
+
+        //pozycja konca przedzialu ufnosci kwantyla p: n*p +- z*sqrt(n*p*(1-p))
+        private static int rank(int n, double p, double z) {
+            int i = (int) Math.round(n * p + z * Math.sqrt(n * p * (1 - p)));
+            return Math.max(0, Math.min(n - 1, i));
+        }
+    }
+
+    private final AppConfig config;
+    private final long simulatedMillis;
+    private final long seed;
+
+    private double[] massPerSecond;
+    private double[] utilization;
+    private double[] stallSeconds;
+
+    public MonteCarlo(AppConfig config, long simulatedMillis, long seed) {
+        //zla konfiguracja przed uruchomieniem replikacji
+        ProductionLine.checkWorkers(config);
+        EventSimulation.checkAdmissionPolicy(config);
+        this.config = config;
+        this.simulatedMillis = simulatedMillis;
+        this.seed = seed;
+    }
+
+    public void run(int replications, ForkJoinPool pool) {
+        if (replications <= 0) {
+            throw new IllegalArgumentException("Liczba replikacji musi byc dodatnia: " + replications);
+        }
+        //generatory wydzielane po kolei z jednego ziarna, zanim ruszy jakikolwiek watek
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[replications];
+        for (int i = 0; i < replications; i++) randoms[i] = root.split();
+
+        massPerSecond = new double[replications];
+        utilization = new double[replications];
+        stallSeconds = new double[replications];
+        pool.invoke(new ReplicationTask(randoms, 0, replications));
+    }
+
+    public Summary massPerSecond() { return Summary.of(massPerSecond); }
+    public Summary truckUtilization() { return Summary.of(utilization); }
+    public Summary stallSeconds() { return Summary.of(stallSeconds); }
+
+    //replikacje trwaja dlugo, wiec zadania dziela sie az do jednej
+    @SuppressWarnings("serial") //RecursiveAction jest Serializable, ale zadanie nigdy nie opuszcza puli
+    private final class ReplicationTask extends RecursiveAction {
+        private final SplittableRandom[] randoms;
+        private final int from;
+        private final int to;
+
+        ReplicationTask(SplittableRandom[] randoms, int from, int to) {
+            this.randoms = randoms;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                SimulationResult result = new EventSimulation(config, config.getTruckCount(), randoms[from]).run(simulatedMillis);
+                massPerSecond[from] = result.massPerSecond();
+                utilization[from] = result.truckUtilization();
+                stallSeconds[from] = result.getStallMillis() / 1000.0;
+                randoms[from] = null; //generator nie jest juz potrzebny
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ReplicationTask(randoms, from, mid), new ReplicationTask(randoms, mid, to));
+        }
+    }
+}
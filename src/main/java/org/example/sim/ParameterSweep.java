@@ -0,0 +1,204 @@
+package org.example.sim;
+
+import org.example.config.AppConfig;
+import org.example.model.WorkerVariation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Przeglad siatki parametrow: kazda kombinacja wartosci z osi to osobna
+ * symulacja dyskretna (zegar wirtualny, bez GUI), a wszystkie kombinacje
+ * licza sie rownolegle na puli ForkJoin. Przebiegi nie dziela zadnego stanu -
+ * kazdy dostaje wlasna kopie konfiguracji, tasme i ciezarowki.
+ * <p>
+ * Parametry osi: beltCountMax, beltWeightMax, truckCapacity, truckCount
+ * oraz &lt;pracownik&gt;.brickMass i &lt;pracownik&gt;.interval (nazwa wpisu z konfiguracji
+ * albo P1, P2... wedlug kolejnosci wpisow).
+ */
+public class ParameterSweep {
+
+    //jedna os siatki: parametr i jego kolejne wartosci
+    public record Axis(String parameter, int[] values) {
+
+        //wartosci jako "od:do:krok", "od:do" (krok 1) albo lista "a,b,c"
+        public static Axis parse(String parameter, String spec) {
+            int[] values;
+            if (spec.contains(":")) {
+                String[] parts = spec.split(":");
+                int from = Integer.parseInt(parts[0].trim());
+                int to = Integer.parseInt(parts[1].trim());
+                int step = parts.length > 2 ? Integer.parseInt(parts[2].trim()) : 1;
+                if (step <= 0 || to < from) {
+                    throw new IllegalArgumentException("Niepoprawny zakres " + parameter + "=" + spec);
+                }
+                values = new int[(to - from) / step + 1];
+                for (int i = 0; i < values.length; i++) values[i] = from + i * step;
+            } else {
+                values = Arrays.stream(spec.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+            }
+            if (values.length == 0) {
+                throw new IllegalArgumentException("Pusta os " + parameter);
+            }
+            return new Axis(parameter, values);
+        }
+    }
+
+    //wynik jednej kombinacji: wartosci w kolejnosci osi; error zamiast wyniku,
+    //gdy kombinacja jest niepoprawna (np. cegla ciezsza niz limit tasmy)
+    public record Row(int[] values, SimulationResult result, String error) { }
+
+    //tyle przebiegow maksymalnie - ochrona przed literowka w zakresie
+    private static final int MAX_COMBINATIONS = 1_000_000;
+
+    private final AppConfig base;
+    private final List<Axis> axes;
+    private final long simulatedMillis;
+    private final int combinations;
+
+    public ParameterSweep(AppConfig base, List<Axis> axes, long simulatedMillis) {
+        //wspolna dla wszystkich kombinacji, wiec odrzucana od razu, a nie w kazdym wierszu
+        EventSimulation.checkAdmissionPolicy(base);
+        this.base = base;
+        this.axes = List.copyOf(axes);
+        this.simulatedMillis = simulatedMillis;
+        long n = 1;
+        for (Axis axis : this.axes) {
+            n *= axis.values().length;
+            if (n > MAX_COMBINATIONS) {
+                throw new IllegalArgumentException("Za duzo kombinacji (> " + MAX_COMBINATIONS + ")");
+            }
+            //nieznany parametr albo zla wartosc wychodzi od razu, a nie w polowie przegladu
+            AppConfig probe = copy(base);
+            for (int value : axis.values()) apply(probe, axis.parameter(), value);
+        }
+        this.combinations = (int) n;
+    }
+
+    public List<Axis> getAxes() { return axes; }
+    public int size() { return combinations; }
+
+    //wszystkie kombinacje w kolejnosci siatki (ostatnia os zmienia sie najszybciej)
+    public List<Row> run(ForkJoinPool pool) {
+        Row[] rows = new Row[combinations];
+        pool.invoke(new SweepTask(rows, 0, combinations));
+        return Arrays.asList(rows);
+    }
+
+    //pojedyncze przebiegi trwaja dlugo, wiec zadania dziela sie az do jednej kombinacji
+    @SuppressWarnings("serial") //nigdy nie serializowane - zyje tylko w puli ForkJoin
+    private final class SweepTask extends RecursiveAction {
+        private final Row[] rows;
+        private final int from;
+        private final int to;
+
+        SweepTask(Row[] rows, int from, int to) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                rows[from] = runOne(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SweepTask(rows, from, mid), new SweepTask(rows, mid, to));
+        }
+    }
+
+    private Row runOne(int index) {
+        int[] values = valuesAt(index);
+        AppConfig config = copy(base);
+        for (int i = 0; i < axes.size(); i++) {
+            apply(config, axes.get(i).parameter(), values[i]);
+        }
+        for (AppConfig.WorkerConfig wc : config.getWorkers()) {
+            int mass = WorkerVariation.of(wc).maxMass(wc.getBrickMass());
+            if (mass > config.getBeltWeightMax() || mass > config.getTruckCapacity()) {
+                return new Row(values, null, "cegla " + wc.getName() + " ciezsza niz limit");
+            }
+        }
+        try {
+            SimulationResult result = new EventSimulation(config, config.getTruckCount()).run(simulatedMillis);
+            return new Row(values, result, null);
+        } catch (RuntimeException e) {
+            return new Row(values, null, e.getMessage());
+        }
+    }
+
+    //numer kombinacji -> wartosci osi (system mieszany, ostatnia os najmlodsza)
+    private int[] valuesAt(int index) {
+        int[] values = new int[axes.size()];
+        for (int i = axes.size() - 1; i >= 0; i--) {
+            int[] axisValues = axes.get(i).values();
+            values[i] = axisValues[index % axisValues.length];
+            index /= axisValues.length;
+        }
+        return values;
+    }
+
+    static AppConfig copy(AppConfig source) {
+        AppConfig config = new AppConfig();
+        config.setBeltCountMax(source.getBeltCountMax());
+        config.setBeltWeightMax(source.getBeltWeightMax());
+        config.setTruckCapacity(source.getTruckCapacity());
+        config.setTruckCount(source.getTruckCount());
+        config.setLoadingStrategy(source.getLoadingStrategy());
+        config.setReserveTruckCapacity(source.isReserveTruckCapacity());
+        config.setBeltType(source.getBeltType());
+        config.setAdmissionPolicy(source.getAdmissionPolicy());
+        List<AppConfig.WorkerConfig> workers = new ArrayList<>();
+        List<AppConfig.WorkerConfig> sourceWorkers = source.getWorkers();
+        for (int i = 0; i < sourceWorkers.size(); i++) {
+            AppConfig.WorkerConfig wc = sourceWorkers.get(i);
+            String name = wc.getName() != null ? wc.getName() : "P" + (i + 1);
+            AppConfig.WorkerConfig worker = new AppConfig.WorkerConfig(name, wc.getBrickMass(), wc.getInterval());
+            worker.setCount(wc.getCount());
+            worker.setIntervalJitter(wc.getIntervalJitter());
+            worker.setMassMix(wc.getMassMix());
+            worker.setBreakProbability(wc.getBreakProbability());
+            worker.setBreakMillis(wc.getBreakMillis());
+            workers.add(worker);
+        }
+        config.setWorkers(workers);
+        return config;
+    }
+
+    static void apply(AppConfig config, String parameter, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(parameter + " musi byc dodatni: " + value);
+        }
+        switch (parameter) {
+            case "beltCountMax" -> config.setBeltCountMax(value);
+            case "beltWeightMax" -> config.setBeltWeightMax(value);
+            case "truckCapacity" -> config.setTruckCapacity(value);
+            case "truckCount" -> config.setTruckCount(value);
+            default -> {
+                int dot = parameter.lastIndexOf('.');
+                String name = dot > 0 ? parameter.substring(0, dot) : null;
+                AppConfig.WorkerConfig worker = null;
+                List<AppConfig.WorkerConfig> workers = config.getWorkers();
+                for (int i = 0; i < workers.size() && worker == null; i++) {
+                    if (workers.get(i).getName().equals(name)) worker = workers.get(i);
+                }
+                for (int i = 0; i < workers.size() && worker == null; i++) {
+                    if (("P" + (i + 1)).equals(name)) worker = workers.get(i);
+                }
+                if (worker == null) {
+                    throw new IllegalArgumentException("Nieznany parametr " + parameter);
+                }
+                switch (parameter.substring(dot + 1)) {
+                    case "brickMass" -> worker.setBrickMass(value);
+                    case "interval" -> worker.setInterval(value);
+                    default -> throw new IllegalArgumentException("Nieznany parametr " + parameter);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.sim;
+
+/**
+ * Zdarzenie w kolejce symulacji: czas wirtualny, rodzaj i indeks aktora
+ * (pracownika albo ciezarowki). Przy rownym czasie decyduje kolejnosc
+ * zaplanowania, wiec przebieg jest w pelni powtarzalny.
+ */
+final class SimEvent implements Comparable<SimEvent> {
+    final long time;
+    final long seq;
+    final int type;
+    final int actor;
+
+    SimEvent(long time, long seq, int type, int actor) {
+        this.time = time;
+        this.seq = seq;
+        this.type = type;
+        this.actor = actor;
+    }
+
+    @Override
+    public int compareTo(SimEvent other) {
+        int byTime = Long.compare(time, other.time);
+        return byTime != 0 ? byTime : Long.compare(seq, other.seq);
+    }
+}
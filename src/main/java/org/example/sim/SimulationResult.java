@@ -0,0 +1,68 @@
+package org.example.sim;
+
+/**
+ * Wynik jednego przebiegu symulacji (czasy w milisekundach czasu wirtualnego).
+ */
+public class SimulationResult {
+    private final long simulatedMillis;
+    private final long bricksAdded;
+    private final long massAdded;
+    private final long trips;
+    private final long tripMass;
+    private final long tripCapacity;
+    private final long deliveredBricks;
+    private final long deliveredMass;
+    private final long stallMillis;
+    private final String[] workerNames;
+    private final long[] workerBricks;
+
+    SimulationResult(long simulatedMillis, long bricksAdded, long massAdded, long trips, long tripMass, long tripCapacity,
+                     long deliveredBricks, long deliveredMass, long stallMillis, String[] workerNames, long[] workerBricks) {
+        this.simulatedMillis = simulatedMillis;
+        this.bricksAdded = bricksAdded;
+        this.massAdded = massAdded;
+        this.trips = trips;
+        this.tripMass = tripMass;
+        this.tripCapacity = tripCapacity;
+        this.deliveredBricks = deliveredBricks;
+        this.deliveredMass = deliveredMass;
+        this.stallMillis = stallMillis;
+        this.workerNames = workerNames;
+        this.workerBricks = workerBricks;
+    }
+
+    public long getSimulatedMillis() { return simulatedMillis; }
+    public long getBricksAdded() { return bricksAdded; }
+    public long getMassAdded() { return massAdded; }
+    public long getTrips() { return trips; }
+    public long getDeliveredBricks() { return deliveredBricks; }
+    public long getDeliveredMass() { return deliveredMass; }
+    public long getStallMillis() { return stallMillis; }
+
+    public int getWorkerCount() { return workerNames.length; }
+    public String getWorkerName(int i) { return workerNames[i]; }
+    public long getWorkerBricks(int i) { return workerBricks[i]; }
+
+    //srednie wypelnienie ciezarowki w kursie (0..1)
+    public double truckUtilization() {
+        return tripCapacity > 0 ? (double) tripMass / tripCapacity : 0;
+    }
+
+    //kursy na 1000 jednostek przewiezionej masy
+    public double tripsPerTonne() {
+        return tripMass > 0 ? trips * 1000.0 / tripMass : 0;
+    }
+
+    //dostarczona masa na sekunde czasu wirtualnego
+    public double massPerSecond() {
+        return simulatedMillis > 0 ? deliveredMass * 1000.0 / simulatedMillis : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Symulacja %.1f s: %d cegiel na tasmie (masa %d), %d kursow, dostarczono masa %d (%.2f/s), "
+                        + "tasma pelna przez %.1f s, wypelnienie ciezarowek %.1f%%, %.2f kursow na tone",
+                simulatedMillis / 1000.0, bricksAdded, massAdded, trips, deliveredMass, massPerSecond(), stallMillis / 1000.0,
+                truckUtilization() * 100, tripsPerTonne());
+    }
+}